@@ -0,0 +1,43 @@
+-- ============================================
+-- 邮件发件箱 - 数据库迁移
+-- 业务请求只写入发件箱，由后台投递线程批量发送、失败重试
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    html BOOLEAN DEFAULT TRUE,
+    status VARCHAR(20) DEFAULT 'pending' CHECK (status IN ('pending', 'sending', 'sent', 'failed')),
+    attempts INTEGER DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    last_error TEXT,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    create_time TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    update_time TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    deleted INTEGER DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(next_attempt_at)
+    WHERE status IN ('pending', 'sending') AND deleted = 0;
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_finished ON email_outbox(update_time)
+    WHERE status IN ('sent', 'failed');
+
+COMMENT ON TABLE email_outbox IS '邮件发件箱';
+COMMENT ON COLUMN email_outbox.id IS '邮件ID';
+COMMENT ON COLUMN email_outbox.recipient IS '收件人';
+COMMENT ON COLUMN email_outbox.subject IS '主题';
+COMMENT ON COLUMN email_outbox.content IS '邮件内容';
+COMMENT ON COLUMN email_outbox.html IS '是否为HTML内容';
+COMMENT ON COLUMN email_outbox.status IS '状态(pending-待发送,sending-发送中,sent-已发送,failed-已放弃)';
+COMMENT ON COLUMN email_outbox.attempts IS '已尝试次数';
+COMMENT ON COLUMN email_outbox.next_attempt_at IS '下次尝试时间，发送中时为租约到期时间';
+COMMENT ON COLUMN email_outbox.last_error IS '最近一次失败原因';
+COMMENT ON COLUMN email_outbox.sent_at IS '发送成功时间';
+
+DROP TRIGGER IF EXISTS update_email_outbox_updated_at ON email_outbox;
+CREATE TRIGGER update_email_outbox_updated_at
+    BEFORE UPDATE ON email_outbox
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
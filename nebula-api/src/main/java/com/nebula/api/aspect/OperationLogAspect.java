@@ -0,0 +1,145 @@
+package com.nebula.api.aspect;
+
+import cn.dev33.satoken.stp.StpUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.http.useragent.UserAgent;
+import cn.hutool.http.useragent.UserAgentUtil;
+import com.alibaba.fastjson2.JSON;
+import com.nebula.common.annotation.OperationLog;
+import com.nebula.config.properties.OperationLogProperties;
+import com.nebula.config.util.ClientIpResolver;
+import com.nebula.model.entity.system.SysOperationLog;
+import com.nebula.service.log.OperationLogWriter;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志切面
+ * 采集 {@link OperationLog} 标注方法的调用信息，交由 {@link OperationLogWriter} 异步入库
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class OperationLogAspect {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAIL = "FAIL";
+
+    /** 与 sys_operation_log 列宽一致 */
+    private static final int NAME_MAX = 100;
+    private static final int METHOD_MAX = 200;
+    private static final int REQUEST_METHOD_MAX = 20;
+    private static final int URL_MAX = 500;
+    private static final int IP_MAX = 50;
+    private static final int UA_PART_MAX = 200;
+
+    private final OperationLogWriter operationLogWriter;
+    private final OperationLogProperties properties;
+    private final ClientIpResolver clientIpResolver;
+
+    @Around("@annotation(operationLog)")
+    public Object around(ProceedingJoinPoint joinPoint, OperationLog operationLog) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            try {
+                operationLogWriter.submit(buildLog(joinPoint, operationLog, result, error, elapsed));
+            } catch (Exception e) {
+                log.warn("操作日志采集失败 | method={}, error={}", joinPoint.getSignature().toShortString(), e.getMessage());
+            }
+        }
+    }
+
+    private SysOperationLog buildLog(ProceedingJoinPoint joinPoint, OperationLog operationLog,
+                                     Object result, Throwable error, long elapsed) {
+        SysOperationLog record = new SysOperationLog();
+        record.setModule(StrUtil.maxLength(operationLog.module(), NAME_MAX - 3));
+        record.setOperation(StrUtil.maxLength(operationLog.operation(), NAME_MAX - 3));
+        record.setMethod(StrUtil.maxLength(
+                joinPoint.getSignature().getDeclaringTypeName() + "." + joinPoint.getSignature().getName(),
+                METHOD_MAX - 3));
+        record.setExecutionTime(elapsed);
+        record.setOperationTime(OffsetDateTime.now());
+        record.setStatus(error == null ? SUCCESS : FAIL);
+        if (error != null) {
+            record.setErrorMsg(truncate(error.getMessage()));
+        }
+        if (operationLog.saveRequestParam()) {
+            record.setRequestParams(toJson(Arrays.stream(joinPoint.getArgs())
+                    .filter(arg -> !isIgnoredArg(arg))
+                    .toArray()));
+        }
+        if (operationLog.saveResponseResult() && result != null) {
+            record.setResponseResult(toJson(result));
+        }
+        if (StpUtil.isLogin()) {
+            record.setUserId(StpUtil.getLoginIdAsLong());
+        }
+
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            record.setRequestMethod(StrUtil.maxLength(request.getMethod(), REQUEST_METHOD_MAX - 3));
+            record.setRequestUrl(StrUtil.maxLength(request.getRequestURI(), URL_MAX - 3));
+            record.setIpAddress(StrUtil.maxLength(clientIpResolver.resolve(request), IP_MAX - 3));
+            String userAgent = request.getHeader("User-Agent");
+            if (userAgent != null && !userAgent.isEmpty()) {
+                UserAgent parsed = UserAgentUtil.parse(userAgent);
+                if (parsed != null) {
+                    record.setBrowser(StrUtil.maxLength(parsed.getBrowser().getName() + " " + parsed.getVersion(),
+                            UA_PART_MAX - 3));
+                    record.setOs(StrUtil.maxLength(parsed.getOs().getName(), UA_PART_MAX - 3));
+                }
+            }
+        }
+        return record;
+    }
+
+    private boolean isIgnoredArg(Object arg) {
+        return arg instanceof ServletRequest
+                || arg instanceof ServletResponse
+                || arg instanceof MultipartFile
+                || arg instanceof BindingResult;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return truncate(JSON.toJSONString(value));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String truncate(String text) {
+        int max = properties.getMaxTextLength();
+        return text != null && text.length() > max ? text.substring(0, max) : text;
+    }
+
+    private HttpServletRequest currentRequest() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getRequest() : null;
+    }
+}
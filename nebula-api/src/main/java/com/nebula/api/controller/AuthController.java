@@ -4,6 +4,7 @@ import cn.dev33.satoken.stp.StpUtil;
 import cn.dev33.satoken.util.SaResult;
 import com.nebula.config.result.Result;
 import com.nebula.model.dto.LoginDTO;
+import com.nebula.model.dto.RefreshTokenDTO;
 import com.nebula.model.dto.RegisterDTO;
 import com.nebula.model.vo.LoginVO;
 import com.nebula.service.service.AuthService;
@@ -14,6 +15,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * 认证控制器
  */
@@ -40,6 +43,13 @@ public class AuthController {
         return Result.success("注册成功", loginVO);
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "刷新令牌")
+    public Result<Map<String, Object>> refresh(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        Map<String, Object> tokens = authService.refresh(refreshTokenDTO.getRefreshToken());
+        return Result.success("刷新成功", tokens);
+    }
+
     @PostMapping("/logout")
     @Operation(summary = "用户登出")
     public Result<Void> logout() {
@@ -1,6 +1,7 @@
 package com.nebula.api.controller;
 
 import cn.dev33.satoken.stp.StpUtil;
+import com.nebula.common.annotation.RateLimit;
 import com.nebula.config.result.Result;
 import com.nebula.model.dto.BlogNoteCreateDTO;
 import com.nebula.model.dto.BlogNoteUpdateDTO;
@@ -108,6 +109,7 @@ public class BlogNoteController {
     /**
      * 获取公开碎碎念列表
      */
+    @RateLimit(permits = 60, period = 60, limitType = RateLimit.LimitType.IP)
     @GetMapping("/public")
     @Operation(summary = "获取公开碎碎念列表", description = "获取公开的日常碎碎念列表")
     public Result<List<BlogArticleVO>> getPublicBlogNotes(BlogNoteQueryDTO query) {
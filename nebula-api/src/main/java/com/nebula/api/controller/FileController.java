@@ -1,5 +1,6 @@
 package com.nebula.api.controller;
 
+import com.nebula.common.annotation.RateLimit;
 import com.nebula.config.result.Result;
 import com.nebula.config.util.MinioUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +30,7 @@ public class FileController {
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @RateLimit(permits = 10, period = 60)
     @PostMapping("/upload")
     @Operation(summary = "上传文件")
     public Result<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
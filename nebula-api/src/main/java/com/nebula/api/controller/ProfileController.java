@@ -1,8 +1,12 @@
 package com.nebula.api.controller;
 
 import cn.dev33.satoken.stp.StpUtil;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.nebula.config.result.Result;
 import com.nebula.model.entity.SysUser;
+import com.nebula.service.cache.UserChangedEvent;
+import com.nebula.service.cache.UserProfile;
+import com.nebula.service.cache.UserProfileCache;
 import com.nebula.service.mapper.SysUserMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +14,7 @@ import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
@@ -25,6 +30,8 @@ import java.time.OffsetDateTime;
 public class ProfileController {
 
     private final SysUserMapper sysUserMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserProfileCache userProfileCache;
 
     @GetMapping("/profile")
     @Operation(summary = "获取用户档案", description = "获取当前用户的完整档案信息")
@@ -33,19 +40,19 @@ public class ProfileController {
             StpUtil.checkLogin();
             Long userId = StpUtil.getLoginIdAsLong();
 
-            // 从数据库获取完整的用户信息
-            SysUser sysUser = sysUserMapper.selectById(userId);
-            if (sysUser == null) {
+            // 从用户资料缓存获取
+            UserProfile profile = userProfileCache.get(userId);
+            if (profile == null) {
                 return Result.error("用户不存在");
             }
 
             UserProfileVO profileVO = new UserProfileVO();
-            profileVO.setId(sysUser.getId());
-            profileVO.setUsername(sysUser.getUsername());
-            profileVO.setEmail(sysUser.getEmail());
-            profileVO.setNickname(sysUser.getNickname());
-            profileVO.setAvatar(sysUser.getAvatarUrl());
-            profileVO.setBio(sysUser.getBio());
+            profileVO.setId(profile.id());
+            profileVO.setUsername(profile.username());
+            profileVO.setEmail(profile.email());
+            profileVO.setNickname(profile.nickname());
+            profileVO.setAvatar(profile.avatarUrl());
+            profileVO.setBio(profile.bio());
 
             return Result.success(profileVO);
         } catch (Exception e) {
@@ -61,18 +68,17 @@ public class ProfileController {
             StpUtil.checkLogin();
             Long userId = StpUtil.getLoginIdAsLong();
 
-            // 查询现有用户
-            SysUser sysUser = sysUserMapper.selectById(userId);
-            if (sysUser == null) {
+            // 直接按ID更新，未提供的字段保持不变
+            int rows = sysUserMapper.update(null, new LambdaUpdateWrapper<SysUser>()
+                    .eq(SysUser::getId, userId)
+                    .set(profileVO.getNickname() != null, SysUser::getNickname, profileVO.getNickname())
+                    .set(profileVO.getAvatar() != null, SysUser::getAvatarUrl, profileVO.getAvatar())
+                    .set(profileVO.getBio() != null, SysUser::getBio, profileVO.getBio())
+                    .set(SysUser::getUpdateTime, OffsetDateTime.now()));
+            if (rows == 0) {
                 return Result.error("用户不存在");
             }
-
-            // 更新用户信息
-            sysUser.setNickname(profileVO.getNickname());
-            sysUser.setAvatarUrl(profileVO.getAvatar());
-            sysUser.setBio(profileVO.getBio());
-            sysUser.setUpdateTime(OffsetDateTime.now());
-            sysUserMapper.updateById(sysUser);
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
 
             log.info("更新用户档案成功: userId={}", userId);
             return Result.success("更新成功");
@@ -91,16 +97,15 @@ public class ProfileController {
             StpUtil.checkLogin();
             Long userId = StpUtil.getLoginIdAsLong();
 
-            // 查询用户
-            SysUser sysUser = sysUserMapper.selectById(userId);
-            if (sysUser == null) {
+            // 更新用户头像字段
+            int rows = sysUserMapper.update(null, new LambdaUpdateWrapper<SysUser>()
+                    .eq(SysUser::getId, userId)
+                    .set(avatarRequest.getAvatarUrl() != null, SysUser::getAvatarUrl, avatarRequest.getAvatarUrl())
+                    .set(SysUser::getUpdateTime, OffsetDateTime.now()));
+            if (rows == 0) {
                 return Result.error("用户不存在");
             }
-
-            // 更新用户头像字段
-            sysUser.setAvatarUrl(avatarRequest.getAvatarUrl());
-            sysUser.setUpdateTime(OffsetDateTime.now());
-            sysUserMapper.updateById(sysUser);
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
 
             log.info("更新用户头像成功: userId={}, avatarUrl={}",
                     userId, avatarRequest.getAvatarUrl());
@@ -2,6 +2,7 @@ package com.nebula.api.controller;
 
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.nebula.common.annotation.RateLimit;
 import com.nebula.config.result.Result;
 import com.nebula.model.vo.UserVO;
 import com.nebula.service.service.UserSearchService;
@@ -29,6 +30,7 @@ public class UserSearchController {
 
     private final UserSearchService userSearchService;
 
+    @RateLimit(permits = 20, period = 10)
     @GetMapping("/search")
     @Operation(summary = "搜索用户", description = "根据关键词搜索用户，支持用户名、昵称、邮箱搜索",
             security = @SecurityRequirement(name = "Authorization"))
@@ -0,0 +1,28 @@
+package com.nebula.api.controller.admin.monitor;
+
+import com.nebula.common.annotation.RequirePermission;
+import com.nebula.config.result.Result;
+import com.nebula.service.log.OperationLogWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/monitor/operation-log")
+@RequiredArgsConstructor
+@Tag(name = "操作日志", description = "操作日志接口")
+@RequirePermission("monitor:operlog:view")
+public class SysOperationLogController {
+
+    private final OperationLogWriter operationLogWriter;
+
+    @GetMapping("/writer-stats")
+    @Operation(summary = "获取操作日志写入器统计（缓冲区深度、丢弃数等）")
+    @RequirePermission("monitor:operlog:query")
+    public Result<OperationLogWriter.Stats> writerStats() {
+        return Result.success(operationLogWriter.getStats());
+    }
+}
@@ -15,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/system/dict-data")
@@ -48,6 +49,13 @@ public class SysDictDataController {
         return Result.success(sysDictItemService.getItemsByDictCode(dictCode));
     }
 
+    @GetMapping("/by-codes")
+    @Operation(summary = "根据多个字典编码批量获取数据")
+    @RequirePermission("system:dict:query")
+    public Result<Map<String, List<SysDictItem>>> getByDictCodes(@RequestParam List<String> dictCodes) {
+        return Result.success(sysDictItemService.getItemsByDictCodes(dictCodes));
+    }
+
     @GetMapping("/{itemId}")
     @Operation(summary = "获取字典数据详情")
     @RequirePermission("system:dict:query")
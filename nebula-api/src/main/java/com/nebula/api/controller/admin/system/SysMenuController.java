@@ -35,9 +35,7 @@ public class SysMenuController {
     @Operation(summary = "获取菜单树")
     @RequirePermission("system:menu:query")
     public Result<List<SysMenu>> getMenuTree() {
-        List<SysMenu> menus = sysMenuService.list();
-        List<SysMenu> tree = sysMenuService.buildMenuTree(menus);
-        return Result.success(tree);
+        return Result.success(sysMenuService.getMenuTree());
     }
 
     @GetMapping("/user")
@@ -46,9 +44,7 @@ public class SysMenuController {
     public Result<List<SysMenu>> getUserMenuTree() {
         StpUtil.checkLogin();
         Long userId = StpUtil.getLoginIdAsLong();
-        List<SysMenu> menus = sysMenuService.getMenuListByUserId(userId);
-        List<SysMenu> tree = sysMenuService.buildMenuTree(menus);
-        return Result.success(tree);
+        return Result.success(sysMenuService.getUserMenuTree(userId));
     }
 
     @GetMapping("/{menuId}")
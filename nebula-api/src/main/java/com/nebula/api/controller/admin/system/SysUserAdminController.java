@@ -6,7 +6,6 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.nebula.common.annotation.OperationLog;
 import com.nebula.common.annotation.RequirePermission;
-import com.nebula.common.constant.AdminConstants;
 import com.nebula.config.result.Result;
 import com.nebula.model.entity.SysUser;
 import com.nebula.service.service.system.SysRoleService;
@@ -118,18 +117,10 @@ public class SysUserAdminController {
     public Result<Void> delete(@PathVariable Long userId) {
         StpUtil.checkLogin();
         Long currentUserId = StpUtil.getLoginIdAsLong();
-        if (isSuperAdmin(currentUserId) && currentUserId != null && currentUserId.equals(userId)) {
+        if (currentUserId.equals(userId) && sysRoleService.isSuperAdmin(currentUserId)) {
             return Result.error("不能删除当前登录的超级管理员账号");
         }
         sysUserAdminService.removeById(userId);
         return Result.success();
     }
-
-    private boolean isSuperAdmin(Long userId) {
-        if (userId == null) {
-            return false;
-        }
-        return AdminConstants.SUPER_ADMIN_USER_ID.equals(userId) ||
-                sysRoleService.hasRole(userId, AdminConstants.SUPER_ADMIN_ROLE_CODE);
-    }
 }
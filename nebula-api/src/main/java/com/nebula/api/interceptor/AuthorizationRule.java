@@ -0,0 +1,96 @@
+package com.nebula.api.interceptor;
+
+import com.nebula.service.cache.PermissionRegistry;
+import com.nebula.service.cache.PermissionSet;
+
+import java.util.Arrays;
+
+/**
+ * 预编译的接口授权规则
+ * 启动时由 {@link AuthorizationTable} 根据 @RequirePermission 生成，
+ * 每个所需权限预先展开为可授予它的通配符形式（如 system:user:edit -> system:user:*、system:*:*、*:*:*），
+ * 并编码为权限位图，校验时只做按字 AND
+ */
+public final class AuthorizationRule {
+
+    /**
+     * 公开接口，无需登录
+     */
+    public static final AuthorizationRule PUBLIC = new AuthorizationRule(true, new String[0], new PermissionSet[0], true);
+
+    /**
+     * 仅需登录，无权限要求
+     */
+    public static final AuthorizationRule LOGIN_ONLY = new AuthorizationRule(false, new String[0], new PermissionSet[0], true);
+
+    private final boolean publicAccess;
+
+    private final String[] permissions;
+
+    /**
+     * 可授予权限的位图：requireAll 时每个所需权限一个，否则合并为一个
+     */
+    private final PermissionSet[] grantingMasks;
+
+    private final boolean requireAll;
+
+    private AuthorizationRule(boolean publicAccess, String[] permissions, PermissionSet[] grantingMasks, boolean requireAll) {
+        this.publicAccess = publicAccess;
+        this.permissions = permissions;
+        this.grantingMasks = grantingMasks;
+        this.requireAll = requireAll;
+    }
+
+    /**
+     * 编译授权规则
+     */
+    public static AuthorizationRule compile(String[] permissions, boolean requireAll, PermissionRegistry registry) {
+        String[] required = Arrays.stream(permissions)
+                .filter(p -> p != null && !p.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toArray(String[]::new);
+        if (required.length == 0) {
+            return LOGIN_ONLY;
+        }
+
+        PermissionSet[] masks = new PermissionSet[required.length];
+        for (int i = 0; i < required.length; i++) {
+            masks[i] = registry.encode(PermissionRegistry.grantingPermissions(required[i]));
+        }
+        if (!requireAll) {
+            masks = new PermissionSet[]{PermissionSet.union(masks)};
+        }
+        return new AuthorizationRule(false, required, masks, requireAll);
+    }
+
+    public boolean isPublic() {
+        return publicAccess;
+    }
+
+    public boolean requiresPermission() {
+        return grantingMasks.length > 0;
+    }
+
+    /**
+     * 判断已授予的权限标识是否满足本规则
+     */
+    public boolean isGrantedBy(PermissionSet granted) {
+        for (PermissionSet mask : grantingMasks) {
+            if (!granted.intersects(mask)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (publicAccess) {
+            return "PUBLIC";
+        }
+        return requiresPermission()
+                ? (requireAll ? "ALL" : "ANY") + Arrays.toString(permissions)
+                : "LOGIN_ONLY";
+    }
+}
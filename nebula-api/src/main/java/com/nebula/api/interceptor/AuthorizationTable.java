@@ -0,0 +1,75 @@
+package com.nebula.api.interceptor;
+
+import cn.dev33.satoken.annotation.SaIgnore;
+import com.nebula.common.annotation.RequirePermission;
+import com.nebula.service.cache.PermissionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口授权表
+ * 启动时扫描所有 HandlerMethod，预编译 @RequirePermission / @SaIgnore 为 {@link AuthorizationRule}，
+ * 请求时按处理方法直接查表，不再反射读取注解
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationTable implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final PermissionRegistry permissionRegistry;
+
+    /**
+     * 以 Method 为键：请求时的 HandlerMethod 是已解析 bean 的新实例，与注册时的实例不相等
+     */
+    private final Map<Method, AuthorizationRule> rules = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+                .forEach(mapping -> mapping.getHandlerMethods().values()
+                        .forEach(handlerMethod -> rules.put(handlerMethod.getMethod(), compile(handlerMethod))));
+        log.info("接口授权表已加载 | handlers={}", rules.size());
+    }
+
+    /**
+     * 获取处理方法对应的授权规则
+     */
+    public AuthorizationRule getRule(HandlerMethod handlerMethod) {
+        AuthorizationRule rule = rules.get(handlerMethod.getMethod());
+        if (rule != null) {
+            return rule;
+        }
+        // 启动后动态注册的处理方法，首次访问时编译
+        return rules.computeIfAbsent(handlerMethod.getMethod(), m -> compile(handlerMethod));
+    }
+
+    private AuthorizationRule compile(HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        Class<?> clazz = handlerMethod.getBeanType();
+
+        if (AnnotatedElementUtils.hasAnnotation(method, SaIgnore.class)
+                || AnnotatedElementUtils.hasAnnotation(clazz, SaIgnore.class)) {
+            return AuthorizationRule.PUBLIC;
+        }
+
+        // 方法注解优先于类注解
+        RequirePermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequirePermission.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(clazz, RequirePermission.class);
+        }
+        if (annotation == null) {
+            return AuthorizationRule.LOGIN_ONLY;
+        }
+        return AuthorizationRule.compile(annotation.value(), annotation.requireAll(), permissionRegistry);
+    }
+}
@@ -1,8 +1,6 @@
 package com.nebula.api.interceptor;
 
 import cn.dev33.satoken.stp.StpUtil;
-import com.nebula.common.annotation.RequirePermission;
-import com.nebula.common.constant.AdminConstants;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.common.exception.ErrorCode;
 import com.nebula.service.service.system.PermissionService;
@@ -15,8 +13,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.lang.reflect.Method;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -24,6 +20,7 @@ public class PermissionInterceptor implements HandlerInterceptor {
 
     private final SysRoleService sysRoleService;
     private final PermissionService permissionService;
+    private final AuthorizationTable authorizationTable;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -31,8 +28,10 @@ public class PermissionInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        Method method = handlerMethod.getMethod();
-        Class<?> clazz = method.getDeclaringClass();
+        AuthorizationRule rule = authorizationTable.getRule(handlerMethod);
+        if (rule.isPublic()) {
+            return true;
+        }
 
         Long userId;
         try {
@@ -42,32 +41,20 @@ public class PermissionInterceptor implements HandlerInterceptor {
             throw new BusinessException(ErrorCode.UNAUTHORIZED);
         }
 
-        if (isSuperAdmin(userId)) {
+        if (!rule.requiresPermission()) {
             return true;
         }
 
-        RequirePermission methodAnnotation = method.getAnnotation(RequirePermission.class);
-        RequirePermission classAnnotation = clazz.getAnnotation(RequirePermission.class);
-
-        if (methodAnnotation == null && classAnnotation == null) {
+        // 角色在请求内只解析一次，后续 PermissionService 复用同一授权上下文
+        if (sysRoleService.isSuperAdmin(userId)) {
             return true;
         }
 
-        String requiredPermission = methodAnnotation != null ? methodAnnotation.value() : classAnnotation.value();
-
-        if (userId == null || !permissionService.hasPermission(userId, requiredPermission)) {
-            log.warn("用户无权限访问: {}, 需要权限: {}", request.getRequestURI(), requiredPermission);
+        if (!rule.isGrantedBy(permissionService.getUserPermissionSet(userId))) {
+            log.warn("用户无权限访问: {}, 需要权限: {}", request.getRequestURI(), rule);
             throw new BusinessException(ErrorCode.PERMISSION_DENIED);
         }
 
         return true;
     }
-
-    private boolean isSuperAdmin(Long userId) {
-        if (userId == null) {
-            return false;
-        }
-        return AdminConstants.SUPER_ADMIN_USER_ID.equals(userId) ||
-                sysRoleService.hasRole(userId, AdminConstants.SUPER_ADMIN_ROLE_CODE);
-    }
 }
@@ -0,0 +1,73 @@
+package com.nebula.api.interceptor;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.nebula.common.annotation.RateLimit;
+import com.nebula.common.exception.BusinessException;
+import com.nebula.common.exception.ErrorCode;
+import com.nebula.config.util.ClientIpResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口限流拦截器
+ * 处理 {@link RateLimit} 标注的接口，规则按处理方法缓存，未标注的方法只做一次查表
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+
+    private final Map<Method, Optional<RateLimiter.Rule>> rules = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        Optional<RateLimiter.Rule> rule = rules.computeIfAbsent(handlerMethod.getMethod(), this::compile);
+        if (rule.isEmpty()) {
+            return true;
+        }
+
+        String identifier = resolveIdentifier(rule.get(), request);
+        if (!rateLimiter.tryAcquire(rule.get(), identifier)) {
+            log.warn("请求被限流: {}, key={}, identifier={}", request.getRequestURI(), rule.get().key(), identifier);
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        return true;
+    }
+
+    private Optional<RateLimiter.Rule> compile(Method method) {
+        RateLimit annotation = AnnotatedElementUtils.findMergedAnnotation(method, RateLimit.class);
+        if (annotation == null) {
+            return Optional.empty();
+        }
+        return Optional.of(RateLimiter.Rule.compile(annotation,
+                method.getDeclaringClass().getSimpleName() + "." + method.getName()));
+    }
+
+    private String resolveIdentifier(RateLimiter.Rule rule, HttpServletRequest request) {
+        if (rule.limitType() == RateLimit.LimitType.USER) {
+            Object loginId = StpUtil.getLoginIdDefaultNull();
+            if (loginId != null) {
+                return "user:" + loginId;
+            }
+        }
+        return "ip:" + clientIpResolver.resolve(request);
+    }
+}
@@ -0,0 +1,219 @@
+package com.nebula.api.interceptor;
+
+import com.nebula.common.annotation.RateLimit;
+import com.nebula.common.constant.RedisKey;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 两级限流器
+ * 本地令牌桶以单次 CAS 判定是否放行；放行次数在本地累加，达到批量阈值或同步间隔后
+ * 由后台线程汇总到 Redis 固定窗口计数，全局超限时本节点在窗口剩余时间内拒绝该维度的请求
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    /**
+     * 本地桶数量上限，超过后先清理已回满的空闲桶，仍超出时按遍历顺序淘汰至上限的 90%
+     */
+    private static final int MAX_BUCKETS = 100_000;
+
+    /**
+     * 两次淘汰扫描的最短间隔，避免持续出现新维度时每个请求都触发全表扫描
+     */
+    private static final long EVICT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 与 Redis 同步的最长间隔
+     */
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 累加本批放行次数，窗口内首次写入时设置过期时间，返回全局计数
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            local total = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if total == tonumber(ARGV[1]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return total
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private volatile long lastEvict = System.nanoTime() - EVICT_INTERVAL_NANOS;
+    private final ThreadPoolExecutor syncExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4096), runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 尝试获取一个请求许可
+     *
+     * @param rule       限流规则
+     * @param identifier 用户ID或IP
+     * @return 是否放行
+     */
+    public boolean tryAcquire(Rule rule, String identifier) {
+        long now = System.nanoTime();
+        String bucketKey = rule.key() + "|" + identifier;
+        Bucket bucket = buckets.get(bucketKey);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(bucketKey, k -> new Bucket(now));
+            evictIfNecessary(now);
+        }
+
+        if (bucket.blockedUntil - now > 0 || !bucket.tryAcquire(now, rule)) {
+            return false;
+        }
+
+        int pending = bucket.pending.incrementAndGet();
+        if ((pending >= rule.syncBatch() || now - bucket.lastSync >= SYNC_INTERVAL_NANOS)
+                && bucket.syncing.compareAndSet(false, true)) {
+            Bucket target = bucket;
+            try {
+                syncExecutor.execute(() -> sync(rule, identifier, target));
+            } catch (RejectedExecutionException e) {
+                target.syncing.set(false);
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+    }
+
+    /**
+     * 将本地放行次数汇总到 Redis 当前窗口
+     */
+    private void sync(Rule rule, String identifier, Bucket bucket) {
+        try {
+            bucket.lastSync = System.nanoTime();
+            int delta = bucket.pending.getAndSet(0);
+            if (delta == 0) {
+                return;
+            }
+            long nowMillis = System.currentTimeMillis();
+            long window = nowMillis / rule.periodMillis();
+            String key = RedisKey.RateLimit.api(rule.key(), identifier) + ":" + window;
+            Long total = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key),
+                    String.valueOf(delta), String.valueOf(rule.periodMillis()));
+            if (total != null && total >= rule.permits()) {
+                long remainingMillis = (window + 1) * rule.periodMillis() - nowMillis;
+                bucket.blockedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+                log.debug("接口全局限流 | key={}, identifier={}, total={}", rule.key(), identifier, total);
+            }
+        } catch (Exception e) {
+            // Redis 不可用时仅依赖本地令牌桶
+            log.debug("限流计数同步失败 | key={}, error={}", rule.key(), e.getMessage());
+        } finally {
+            bucket.syncing.set(false);
+        }
+    }
+
+    private void evictIfNecessary(long now) {
+        if (buckets.size() <= MAX_BUCKETS || now - lastEvict < EVICT_INTERVAL_NANOS
+                || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastEvict = now;
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            int excess = buckets.size() - MAX_BUCKETS / 10 * 9;
+            if (excess > 0) {
+                // 被淘汰的活跃桶只丢失本地状态，全局计数仍由 Redis 窗口约束
+                Iterator<Bucket> iterator = buckets.values().iterator();
+                while (excess-- > 0 && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+                log.warn("限流桶数量超出上限，已强制淘汰 | size={}", buckets.size());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 预编译的限流规则
+     *
+     * @param key            限流键
+     * @param permits        窗口内允许的请求数
+     * @param periodMillis   窗口长度（毫秒）
+     * @param intervalNanos  令牌生成间隔
+     * @param burstNanos     允许的突发容量（换算为时间）
+     * @param syncBatch      触发同步的本地放行次数
+     * @param limitType      限流维度
+     */
+    public record Rule(String key, int permits, long periodMillis, long intervalNanos, long burstNanos,
+                       int syncBatch, RateLimit.LimitType limitType) {
+
+        public static Rule compile(RateLimit annotation, String defaultKey) {
+            int permits = Math.max(1, annotation.permits());
+            long periodNanos = TimeUnit.SECONDS.toNanos(Math.max(1, annotation.period()));
+            long intervalNanos = periodNanos / permits;
+            String key = annotation.key().isEmpty() ? defaultKey : annotation.key();
+            return new Rule(key, permits, TimeUnit.NANOSECONDS.toMillis(periodNanos), intervalNanos,
+                    intervalNanos * (permits - 1), Math.max(1, permits / 10), annotation.limitType());
+        }
+    }
+
+    /**
+     * 本地令牌桶，以理论到达时间（GCRA）表示剩余令牌，单个 AtomicLong 即可无锁判定
+     */
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean syncing = new AtomicBoolean();
+        private volatile long blockedUntil;
+        private volatile long lastSync;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+            this.blockedUntil = now;
+            this.lastSync = now;
+        }
+
+        private boolean tryAcquire(long now, Rule rule) {
+            for (;;) {
+                long tat = theoreticalArrival.get();
+                long base = tat - now > 0 ? tat : now;
+                if (base - now > rule.burstNanos()) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(tat, base + rule.intervalNanos())) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return theoreticalArrival.get() - now <= 0 && blockedUntil - now <= 0 && pending.get() == 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nebula.common.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 接口限流
+ * 每个节点先用本地令牌桶判定，超出的请求直接拒绝；已放行的请求按批汇总到 Redis，
+ * 全局计数达到上限后各节点在当前窗口内拒绝后续请求
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 时间窗口内允许的请求数
+     */
+    int permits();
+
+    /**
+     * 时间窗口（秒）
+     */
+    int period() default 1;
+
+    /**
+     * 限流维度
+     */
+    LimitType limitType() default LimitType.USER;
+
+    /**
+     * 限流键，默认为 类名.方法名
+     */
+    String key() default "";
+
+    enum LimitType {
+        /**
+         * 按登录用户限流，未登录时按IP
+         */
+        USER,
+        /**
+         * 按客户端IP限流
+         */
+        IP
+    }
+}
@@ -6,7 +6,13 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface RequirePermission {
-    String value() default "";
+    /**
+     * 权限标识，支持多个
+     */
+    String[] value() default {};
 
+    /**
+     * 多个权限时是否需要全部满足，false 表示满足任意一个即可
+     */
     boolean requireAll() default true;
 }
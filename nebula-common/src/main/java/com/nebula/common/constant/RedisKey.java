@@ -29,6 +29,56 @@ public class RedisKey {
          */
         public static final long INFO_TTL = 60 * 60;
 
+        /**
+         * 登录账号（用户名或邮箱）到用户ID的映射
+         * 格式: nebula:user:account:{account}
+         */
+        public static String account(String account) {
+            return join(PREFIX, USER, "account", account);
+        }
+
+        /**
+         * 用户登录凭据（密码哈希、账号状态）
+         * 格式: nebula:user:credential:{userId}
+         */
+        public static String credential(Long userId) {
+            return join(PREFIX, USER, "credential", String.valueOf(userId));
+        }
+
+        /**
+         * 登录凭据失效广播频道，通知其他节点清理本地凭据缓存
+         * 格式: nebula:user:credential-invalidation
+         */
+        public static String credentialInvalidationChannel() {
+            return join(PREFIX, USER, "credential-invalidation");
+        }
+
+        /**
+         * 账号解析缓存过期时间（30分钟）
+         */
+        public static final long ACCOUNT_TTL = 30 * 60;
+
+        /**
+         * 用户名与邮箱布隆过滤器位图
+         * 格式: nebula:user:account-bloom
+         */
+        public static String accountBloom() {
+            return join(PREFIX, USER, "account-bloom");
+        }
+
+        /**
+         * GitHub 头像镜像状态（来源地址、ETag、内容哈希、对象名）
+         * 格式: nebula:user:avatar-mirror:{userId}
+         */
+        public static String avatarMirror(Long userId) {
+            return join(PREFIX, USER, "avatar-mirror", String.valueOf(userId));
+        }
+
+        /**
+         * 头像镜像状态过期时间（30天）
+         */
+        public static final long AVATAR_MIRROR_TTL = 30 * 24 * 60 * 60;
+
         /**
          * 用户在线状态
          * 格式: nebula:user:online:{userId}
@@ -46,6 +96,27 @@ public class RedisKey {
         }
     }
 
+    /**
+     * 权限相关 Key
+     */
+    public static class Permission {
+
+        private static final String PERMISSION = "permission";
+
+        /**
+         * 用户权限标识集合
+         * 格式: nebula:permission:user:{userId}
+         */
+        public static String userPerms(Long userId) {
+            return join(PREFIX, PERMISSION, "user", String.valueOf(userId));
+        }
+
+        /**
+         * 用户权限缓存过期时间（30分钟）
+         */
+        public static final long USER_PERMS_TTL = 30 * 60;
+    }
+
     /**
      * 限流相关 Key
      */
@@ -68,6 +139,78 @@ public class RedisKey {
         public static String login(String identifier) {
             return join(PREFIX, RATE_LIMIT, "login", identifier);
         }
+
+        /**
+         * 登录锁定标记
+         * 格式: nebula:ratelimit:login:lock:{ipOrEmail}
+         */
+        public static String loginLock(String identifier) {
+            return join(PREFIX, RATE_LIMIT, "login", "lock", identifier);
+        }
+
+        /**
+         * 每日配额计数，于配额时区的零点过期
+         * 格式: nebula:ratelimit:quota:{scope}:{date}:{subject}
+         */
+        public static String dailyQuota(String scope, String date, String subject) {
+            return join(PREFIX, RATE_LIMIT, "quota", scope, date, subject);
+        }
+    }
+
+    /**
+     * 认证会话相关 Key
+     */
+    public static class Auth {
+
+        private static final String AUTH = "auth";
+
+        /**
+         * Token 失效广播频道，注销、踢人下线时通知其他节点清理本地缓存
+         * 格式: nebula:auth:token-invalidation
+         */
+        public static String tokenInvalidationChannel() {
+            return join(PREFIX, AUTH, "token-invalidation");
+        }
+
+        /**
+         * 已轮换或吊销的刷新令牌ID（ZSET，分值为令牌过期时间）
+         * 格式: nebula:auth:revoked-tokens
+         */
+        public static String revokedTokens() {
+            return join(PREFIX, AUTH, "revoked-tokens");
+        }
+
+        /**
+         * 按用户吊销的无状态令牌（HASH，用户ID -> 吊销时间），签发时间不晚于吊销时间的令牌均失效
+         * 格式: nebula:auth:revoked-users
+         */
+        public static String revokedUsers() {
+            return join(PREFIX, AUTH, "revoked-users");
+        }
+
+        /**
+         * 用户吊销广播频道，通知其他节点更新本地布隆过滤器
+         * 格式: nebula:auth:revocation
+         */
+        public static String revocationChannel() {
+            return join(PREFIX, AUTH, "revocation");
+        }
+
+        /**
+         * 签名令牌（密码重置、邮箱验证）的当前随机数，令牌使用或重新申请后即失效
+         * 格式: nebula:auth:action-nonce:{purpose}:{userId}
+         */
+        public static String actionNonce(String purpose, Long userId) {
+            return join(PREFIX, AUTH, "action-nonce", purpose, String.valueOf(userId));
+        }
+
+        /**
+         * 第三方登录回调后暂存的用户信息（HASH），确认登录时原子读取并删除
+         * 格式: nebula:auth:oauth-temp:{provider}:{tempToken}
+         */
+        public static String oauthTemp(String provider, String tempToken) {
+            return join(PREFIX, AUTH, "oauth-temp", provider, tempToken);
+        }
     }
 
     /**
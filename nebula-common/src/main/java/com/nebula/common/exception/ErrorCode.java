@@ -17,6 +17,7 @@ public enum ErrorCode {
     PARAM_ERROR(1001, "参数错误"),
     PARAM_MISSING(1002, "缺少必要参数"),
     PARAM_INVALID(1003, "参数格式不正确"),
+    TOO_MANY_REQUESTS(1004, "请求过于频繁，请稍后再试"),
 
     // 认证相关错误 2xxx
     UNAUTHORIZED(2001, "未登录，请先登录"),
@@ -30,6 +31,7 @@ public enum ErrorCode {
     USER_NOT_FOUND(2009, "用户不存在"),
     USER_DISABLED(2010, "账号已被禁用"),
     USER_DELETED(2011, "账号已被删除"),
+    ACCOUNT_LOCKED(2012, "登录失败次数过多，请稍后再试"),
 
     // 注册相关错误 3xxx
     EMAIL_EXISTS(3001, "邮箱已被注册"),
@@ -866,6 +866,22 @@ public class RedisUtil {
         }
     }
 
+    // ========================= 发布订阅 =========================
+
+    /**
+     * 向频道发布消息
+     */
+    public boolean publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            log.debug("Redis publish | channel={}", channel);
+            return true;
+        } catch (Exception e) {
+            LogUtil.Redis.error(log, "publish", channel, e.getMessage());
+            return false;
+        }
+    }
+
     // ========================= 分布式锁 =========================
 
     /**
@@ -1,17 +1,42 @@
 package com.nebula.config.config;
 
+import com.nebula.config.interceptor.OutboundHttpInterceptor;
+import com.nebula.config.properties.HttpClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * RestTemplate配置
+ * 底层使用 JDK HttpClient：连接自动复用并保持长连接，支持 HTTP/2 多路复用，设置连接与读取超时；
+ * 按主机的并发限制与耗时指标由 {@link OutboundHttpInterceptor} 提供
  */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient outboundHttpClient(HttpClientProperties properties) {
+        return HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMillis()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(HttpClient outboundHttpClient, HttpClientProperties properties,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(properties.getReadTimeoutMillis()));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new OutboundHttpInterceptor(properties, meterRegistry));
+        return restTemplate;
     }
 }
@@ -0,0 +1,151 @@
+package com.nebula.config.interceptor;
+
+import com.nebula.config.properties.HttpClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 出站 HTTP 请求拦截器
+ * 按目标主机限制同时进行的请求数，名额在响应关闭时归还，慢速的下游不会占满全部工作线程；
+ * 容器中存在 MeterRegistry 时按主机与结果记录 http.client.outbound 耗时指标
+ */
+@Slf4j
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String METRIC_NAME = "http.client.outbound";
+
+    private final HttpClientProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public OutboundHttpInterceptor(HttpClientProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost() != null ? request.getURI().getHost() : "unknown";
+        Semaphore semaphore = permits.computeIfAbsent(host, key -> new Semaphore(properties.getMaxConcurrentPerHost()));
+        try {
+            if (!semaphore.tryAcquire(properties.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                record(host, "REJECTED", 0);
+                throw new IOException("出站请求并发已满: " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待出站请求名额被中断: " + host, e);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            semaphore.release();
+            record(host, "IO_ERROR", System.nanoTime() - start);
+            throw e;
+        }
+        return new TrackedResponse(response, () -> {
+            long elapsed = System.nanoTime() - start;
+            semaphore.release();
+            String outcome;
+            try {
+                outcome = outcomeOf(response.getStatusCode());
+            } catch (IOException e) {
+                outcome = "UNKNOWN";
+            }
+            record(host, outcome, elapsed);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (elapsedMillis >= properties.getSlowRequestMillis()) {
+                log.warn("出站请求较慢 | method={}, host={}, path={}, outcome={}, cost={}ms",
+                        request.getMethod(), host, request.getURI().getPath(), outcome, elapsedMillis);
+            }
+        });
+    }
+
+    private void record(String host, String outcome, long elapsedNanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("出站 HTTP 请求耗时（至响应关闭）")
+                .tag("host", host)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcomeOf(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is3xxRedirection()) {
+            return "REDIRECTION";
+        }
+        return status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    /**
+     * 响应关闭时归还并发名额并记录指标，关闭多次只生效一次
+     */
+    private static final class TrackedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Runnable onClose;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private TrackedResponse(ClientHttpResponse delegate, Runnable onClose) {
+            this.delegate = delegate;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    onClose.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件发件箱投递配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "email-outbox")
+public class EmailOutboxProperties {
+
+    /**
+     * 单批领取的最大邮件数，同一批次复用一个 SMTP 连接
+     */
+    private int batchSize = 50;
+
+    /**
+     * 空闲时的轮询间隔（毫秒）
+     */
+    private long pollIntervalMillis = 2000;
+
+    /**
+     * 领取后的租约时长（秒），超时未完成的邮件会被重新领取
+     */
+    private long leaseSeconds = 300;
+
+    /**
+     * 最大尝试次数，超出后标记为失败
+     */
+    private int maxAttempts = 6;
+
+    /**
+     * 首次重试的退避时长（秒），之后每次翻倍
+     */
+    private long backoffSeconds = 30;
+
+    /**
+     * 每个收件域名每秒最多发送的邮件数
+     */
+    private int perProviderRatePerSecond = 5;
+
+    /**
+     * 已发送、已放弃邮件的保留时长（小时），邮件内容含有效链接，到期后物理删除
+     */
+    private long retentionHours = 24;
+}
@@ -0,0 +1,24 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 邮件模板配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "email-template")
+public class EmailTemplateProperties {
+
+    /**
+     * 外部模板目录（如 file:/etc/nebula/email-templates/），同名模板覆盖 classpath 中的内置模板；为空时只使用内置模板
+     */
+    private String location = "";
+
+    /**
+     * 检查模板变更并重新加载的间隔（秒），0 表示不自动重新加载
+     */
+    private long reloadIntervalSeconds = 30;
+}
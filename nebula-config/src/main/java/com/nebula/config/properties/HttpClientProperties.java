@@ -0,0 +1,44 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 出站 HTTP 客户端配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+
+    /**
+     * 建立连接超时（毫秒）
+     */
+    private long connectTimeoutMillis = 3000;
+
+    /**
+     * 读取响应超时（毫秒）
+     */
+    private long readTimeoutMillis = 10000;
+
+    /**
+     * 是否优先使用 HTTP/2，服务端不支持时自动回退到 HTTP/1.1
+     */
+    private boolean http2 = true;
+
+    /**
+     * 每个目标主机同时进行的最大请求数
+     */
+    private int maxConcurrentPerHost = 32;
+
+    /**
+     * 等待主机并发名额的最长时间（毫秒），超时后请求直接失败
+     */
+    private long acquireTimeoutMillis = 2000;
+
+    /**
+     * 超过该耗时（毫秒）的请求记录慢请求日志
+     */
+    private long slowRequestMillis = 2000;
+}
@@ -0,0 +1,39 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 无状态令牌配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * 是否启用无状态模式，启用后登录签发 JWT，校验不再访问会话存储
+     */
+    private boolean stateless = false;
+
+    /**
+     * HMAC 签名密钥，至少 32 字节
+     */
+    private String secret;
+
+    /**
+     * 签发者
+     */
+    private String issuer = "nebula";
+
+    /**
+     * 访问令牌有效期（秒）
+     */
+    private long accessTtlSeconds = 15 * 60;
+
+    /**
+     * 刷新令牌有效期（秒）
+     */
+    private long refreshTtlSeconds = 7 * 24 * 60 * 60;
+}
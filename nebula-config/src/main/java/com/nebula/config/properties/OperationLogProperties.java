@@ -0,0 +1,67 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志异步写入配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "operation-log")
+public class OperationLogProperties {
+
+    /**
+     * 环形缓冲区容量，向上取整为2的幂
+     */
+    private int capacity = 8192;
+
+    /**
+     * 单次批量插入的最大条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 缓冲区为空时消费线程的休眠间隔（毫秒）
+     */
+    private long flushIntervalMillis = 500;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * BLOCK 策略下请求线程的最长等待时间（毫秒），超时后丢弃
+     */
+    private long blockTimeoutMillis = 100;
+
+    /**
+     * SPILL 策略下溢出日志的落盘目录
+     */
+    private String spillDir = "logs/operation-log";
+
+    /**
+     * 请求参数、响应结果、错误信息的最大保存长度
+     */
+    private int maxTextLength = 2000;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 直接丢弃并计数
+         */
+        DROP,
+        /**
+         * 请求线程短暂等待空位，超时后丢弃
+         */
+        BLOCK,
+        /**
+         * 追加写入本地文件，缓冲区空闲时回放入库
+         */
+        SPILL
+    }
+}
@@ -0,0 +1,49 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "password-hash")
+public class PasswordHashProperties {
+
+    /**
+     * 哈希线程数，默认等于 CPU 核数
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列容量，队列满时立即拒绝
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 调用方等待单次哈希结果的最长时间（毫秒）
+     */
+    private long timeoutMillis = 5000;
+
+    /**
+     * BCrypt 强度，0 表示启动时按目标耗时自动校准
+     */
+    private int strength = 0;
+
+    /**
+     * 自动校准时单次哈希的目标耗时（毫秒）
+     */
+    private long targetMillis = 250;
+
+    /**
+     * 自动校准的最小强度
+     */
+    private int minStrength = 10;
+
+    /**
+     * 自动校准的最大强度
+     */
+    private int maxStrength = 14;
+}
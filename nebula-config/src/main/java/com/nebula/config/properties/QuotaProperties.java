@@ -0,0 +1,21 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+
+/**
+ * 每日配额配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quota")
+public class QuotaProperties {
+
+    /**
+     * 计算"每日"边界所用的时区，默认使用系统时区
+     */
+    private ZoneId zoneId = ZoneId.systemDefault();
+}
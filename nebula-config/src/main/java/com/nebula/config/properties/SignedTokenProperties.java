@@ -0,0 +1,19 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 签名令牌（密码重置、邮箱验证链接）配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "signed-token")
+public class SignedTokenProperties {
+
+    /**
+     * HMAC 签名密钥，至少 32 字节，多实例部署时必须一致；未配置时密码重置与邮箱验证不可用
+     */
+    private String secret;
+}
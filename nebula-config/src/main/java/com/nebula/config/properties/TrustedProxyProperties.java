@@ -0,0 +1,23 @@
+package com.nebula.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 受信任反向代理配置属性
+ * 只有直连地址属于这些代理时才读取 X-Forwarded-For / X-Real-IP，否则以直连地址作为客户端IP
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "trusted-proxy")
+public class TrustedProxyProperties {
+
+    /**
+     * 受信任代理的地址或网段（CIDR），如 10.0.0.0/8、::1
+     */
+    private List<String> addresses = new ArrayList<>(List.of("127.0.0.1", "::1"));
+}
@@ -0,0 +1,150 @@
+package com.nebula.config.security;
+
+import com.nebula.common.exception.BusinessException;
+import com.nebula.common.exception.ErrorCode;
+import com.nebula.config.properties.PasswordHashProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 有界 BCrypt 密码编码器
+ * 哈希与校验在独立的有界线程池中执行，队列满时立即失败，避免登录高峰占满 Web 线程；
+ * BCrypt 强度在启动时按目标耗时校准，低于当前强度的旧哈希可在登录成功后后台升级
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_WARMUP = 5;
+    private static final int CALIBRATION_SAMPLES = 5;
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public BoundedPasswordEncoder(PasswordHashProperties properties) {
+        int strength = properties.getStrength() > 0 ? properties.getStrength() : calibrate(properties);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = properties.getTimeoutMillis();
+
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码编码器已初始化 | strength={}, threads={}, queue={}", strength, threads, properties.getQueueCapacity());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 哈希强度低于当前配置时返回 true
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 在后台计算哈希，不阻塞调用线程；线程池已满时返回失败的 Future
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> delegate.encode(rawPassword), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 当前等待执行的哈希任务数
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T await(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码哈希线程池已满，拒绝请求 | queue={}", executor.getQueue().size());
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("密码哈希等待超时 | timeoutMillis={}", timeoutMillis);
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 以最小强度实测单次哈希耗时，每提高 1 级耗时翻倍，选取不超过目标耗时的最大强度。
+     * 先预热使 JIT 完成编译，再取多次测量的最小值，避免冷启动高估耗时而选出偏低的强度
+     */
+    private static int calibrate(PasswordHashProperties properties) {
+        int minStrength = Math.max(4, properties.getMinStrength());
+        int maxStrength = Math.min(31, Math.max(minStrength, properties.getMaxStrength()));
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode(CALIBRATION_PASSWORD);
+        for (int i = 0; i < CALIBRATION_WARMUP; i++) {
+            probe.matches(CALIBRATION_PASSWORD, hash);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.matches(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = Math.max(0.001, best / 1_000_000.0);
+
+        int strength = minStrength;
+        while (strength < maxStrength && millis * 2 <= properties.getTargetMillis()) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("BCrypt 强度校准完成 | strength={}, 预计单次校验={}ms, 单核吞吐≈{}/s",
+                strength, String.format("%.1f", millis), String.format("%.1f", 1000 / millis));
+        return strength;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nebula.config.security;
+
+import com.nebula.config.properties.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * JWT 签发与校验
+ * 访问令牌与刷新令牌使用同一 HMAC 密钥，通过 typ 声明区分；校验只做签名、过期与类型检查，不访问任何存储
+ */
+public class JwtTokenProvider {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    private static final String CLAIM_TYPE = "typ";
+
+    /**
+     * 毫秒精度的签发时间，iat 只到秒，按用户吊销时需要区分同一秒内先后签发的令牌
+     */
+    private static final String CLAIM_ISSUED_MILLIS = "iam";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final JwtProperties properties;
+
+    public JwtTokenProvider(JwtProperties properties) {
+        if (properties.getSecret() == null || properties.getSecret().getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("jwt.secret 至少需要 32 字节");
+        }
+        this.properties = properties;
+        this.key = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(properties.getIssuer())
+                .build();
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @param type 令牌类型，{@link #TYPE_ACCESS} 或 {@link #TYPE_REFRESH}
+     */
+    public String issue(Long userId, String type) {
+        long now = System.currentTimeMillis();
+        long ttlSeconds = TYPE_REFRESH.equals(type) ? properties.getRefreshTtlSeconds() : properties.getAccessTtlSeconds();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer(properties.getIssuer())
+                .subject(String.valueOf(userId))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlSeconds * 1000))
+                .claim(CLAIM_TYPE, type)
+                .claim(CLAIM_ISSUED_MILLIS, now)
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * 校验令牌并返回声明，签名无效、已过期或类型不符时返回 null
+     */
+    public Claims parse(String token, String type) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return type.equals(claims.get(CLAIM_TYPE, String.class)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 毫秒精度的签发时间
+     */
+    public static long issuedAtMillis(Claims claims) {
+        Number millis = claims.get(CLAIM_ISSUED_MILLIS, Number.class);
+        return millis != null ? millis.longValue() : claims.getIssuedAt().getTime();
+    }
+
+    /**
+     * 粗略判断是否为 JWT（三段式），用于与 Sa-Token 的随机令牌区分
+     */
+    public static boolean looksLikeJwt(String token) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        return first > 0 && last > first + 1 && token.indexOf('.', first + 1) == last;
+    }
+}
@@ -0,0 +1,113 @@
+package com.nebula.config.security;
+
+import cn.dev33.satoken.stp.StpUtil;
+import com.nebula.common.exception.BusinessException;
+import com.nebula.common.exception.ErrorCode;
+import com.nebula.common.util.RedisUtil;
+import com.nebula.config.properties.JwtProperties;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 登录令牌签发
+ * 默认由 Sa-Token 创建服务端会话；开启 jwt.stateless 后改为签发短期访问令牌与可轮换的刷新令牌，
+ * 校验交由 {@link StatelessStpLogic} 完成，注销与封禁通过 {@link TokenRevocationList} 生效
+ */
+@Slf4j
+@Component
+public class LoginTokenIssuer implements DisposableBean {
+
+    private final JwtProperties properties;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
+
+    public LoginTokenIssuer(JwtProperties properties, RedisUtil redisUtil, RedisTemplate<String, Object> redisTemplate,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.properties = properties;
+        if (properties.isStateless()) {
+            this.tokenProvider = new JwtTokenProvider(properties);
+            this.revocationList = new TokenRevocationList(redisUtil, redisTemplate, listenerContainer,
+                    Math.max(properties.getAccessTtlSeconds(), properties.getRefreshTtlSeconds()) * 1000);
+            StpUtil.setStpLogic(new StatelessStpLogic(tokenProvider, revocationList));
+            log.info("无状态令牌模式已启用 | accessTtl={}s, refreshTtl={}s",
+                    properties.getAccessTtlSeconds(), properties.getRefreshTtlSeconds());
+        } else {
+            this.tokenProvider = null;
+            this.revocationList = null;
+        }
+    }
+
+    public boolean isStateless() {
+        return properties.isStateless();
+    }
+
+    /**
+     * 为登录成功的用户签发令牌
+     */
+    public IssuedToken issue(Long userId) {
+        if (!isStateless()) {
+            StpUtil.login(userId);
+            return new IssuedToken(StpUtil.getTokenValue(), "", StpUtil.getTokenTimeout());
+        }
+        return new IssuedToken(tokenProvider.issue(userId, JwtTokenProvider.TYPE_ACCESS),
+                tokenProvider.issue(userId, JwtTokenProvider.TYPE_REFRESH),
+                properties.getAccessTtlSeconds());
+    }
+
+    /**
+     * 使用刷新令牌换取新的令牌对，旧刷新令牌随即失效；已使用过的刷新令牌再次出现时视为泄露，吊销该用户全部令牌
+     */
+    public IssuedToken refresh(String refreshToken) {
+        if (!isStateless() || refreshToken == null || refreshToken.isBlank()) {
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+        Claims claims = tokenProvider.parse(refreshToken, JwtTokenProvider.TYPE_REFRESH);
+        if (claims == null) {
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+        Long userId = Long.valueOf(claims.getSubject());
+        if (revocationList.isUserRevoked(userId, JwtTokenProvider.issuedAtMillis(claims))) {
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+        if (!revocationList.markRefreshTokenUsed(claims.getId(), claims.getExpiration().getTime())) {
+            if (revocationList.isRefreshTokenUsed(claims.getId())) {
+                log.warn("刷新令牌被重复使用，吊销该用户全部令牌 | userId={}", userId);
+                revocationList.revokeUser(userId);
+            }
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_INVALID);
+        }
+        return issue(userId);
+    }
+
+    /**
+     * 使用户的全部令牌失效，用于注销和封禁
+     */
+    public void revokeUser(Long userId) {
+        if (isStateless()) {
+            revocationList.revokeUser(userId);
+        } else {
+            StpUtil.logout(userId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (revocationList != null) {
+            revocationList.destroy();
+        }
+    }
+
+    /**
+     * 签发结果
+     *
+     * @param token        访问令牌
+     * @param refreshToken 刷新令牌，会话模式下为空字符串
+     * @param expiresIn    访问令牌有效期（秒）
+     */
+    public record IssuedToken(String token, String refreshToken, long expiresIn) {
+    }
+}
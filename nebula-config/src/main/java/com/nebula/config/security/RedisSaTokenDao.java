@@ -0,0 +1,177 @@
+package com.nebula.config.security;
+
+import cn.dev33.satoken.dao.SaTokenDao;
+import cn.dev33.satoken.dao.auto.SaTokenDaoByObjectFollowString;
+import cn.dev33.satoken.util.SaFoxUtil;
+import com.nebula.common.constant.RedisKey;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redis 的 Sa-Token 持久层
+ * 会话数据统一保存在 Redis，多实例之间共享，重启不丢失；对象由 Sa-Token 序列化为字符串后存储。
+ * Token 到登录ID的映射额外缓存在本地，无效 Token 也做短时缓存；注销、踢人下线时通过 Redis 频道通知其他节点失效。
+ * 直接使用 RedisTemplate，Redis 异常向上抛出，不会被当作"Token 不存在"缓存或导致写入静默丢失
+ */
+@Slf4j
+@Primary
+@Component
+@RequiredArgsConstructor
+public class RedisSaTokenDao implements SaTokenDaoByObjectFollowString, MessageListener {
+
+    /**
+     * 本地缓存有效期（10秒），其他节点的失效广播丢失时作为兜底
+     */
+    private static final long LOCAL_TTL_MILLIS = 10 * 1000L;
+
+    /**
+     * 无效 Token 的本地缓存有效期（3秒）
+     */
+    private static final long NEGATIVE_TTL_MILLIS = 3 * 1000L;
+
+    /**
+     * 本地缓存最大条目数，超出后整体清空
+     */
+    private static final int LOCAL_MAX_SIZE = 50_000;
+
+    /**
+     * Sa-Token 中 Token -> 登录ID 映射的键特征，如 satoken:login:token:{tokenValue}
+     */
+    private static final String TOKEN_KEY_MARK = ":token:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ConcurrentHashMap<String, Entry> localTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.Auth.tokenInvalidationChannel()));
+    }
+
+    @Override
+    public String get(String key) {
+        if (!isTokenKey(key)) {
+            return (String) redisTemplate.opsForValue().get(key);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = localTokens.get(key);
+        if (entry != null && entry.expireAt() > now) {
+            return entry.value();
+        }
+        String value = (String) redisTemplate.opsForValue().get(key);
+        putLocal(key, value, now);
+        return value;
+    }
+
+    @Override
+    public void set(String key, String value, long timeout) {
+        if (timeout == 0 || timeout <= SaTokenDao.NOT_VALUE_EXPIRE) {
+            return;
+        }
+        if (timeout == SaTokenDao.NEVER_EXPIRE) {
+            redisTemplate.opsForValue().set(key, value);
+        } else {
+            redisTemplate.opsForValue().set(key, value, timeout, TimeUnit.SECONDS);
+        }
+        if (isTokenKey(key)) {
+            putLocal(key, value, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void update(String key, String value) {
+        long expire = getTimeout(key);
+        if (expire == SaTokenDao.NOT_VALUE_EXPIRE) {
+            return;
+        }
+        set(key, value, expire);
+        // 踢人下线、顶人下线会改写 Token 映射的值
+        if (isTokenKey(key)) {
+            broadcastInvalidation(key);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.delete(key);
+        if (isTokenKey(key)) {
+            localTokens.remove(key);
+            broadcastInvalidation(key);
+        }
+    }
+
+    @Override
+    public long getTimeout(String key) {
+        Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
+        return ttl != null ? ttl : SaTokenDao.NOT_VALUE_EXPIRE;
+    }
+
+    @Override
+    public void updateTimeout(String key, long timeout) {
+        if (timeout == SaTokenDao.NEVER_EXPIRE) {
+            if (getTimeout(key) != SaTokenDao.NEVER_EXPIRE) {
+                redisTemplate.persist(key);
+            }
+            return;
+        }
+        redisTemplate.expire(key, timeout, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public List<String> searchData(String prefix, String keyword, int start, int size, boolean sortType) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*" + keyword + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return SaFoxUtil.searchList(keys, start, size, sortType);
+    }
+
+    /**
+     * 接收其他节点的失效广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object key = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (key instanceof String tokenKey) {
+            localTokens.remove(tokenKey);
+        }
+    }
+
+    private void broadcastInvalidation(String key) {
+        redisTemplate.convertAndSend(RedisKey.Auth.tokenInvalidationChannel(), key);
+    }
+
+    private void putLocal(String key, String value, long now) {
+        if (localTokens.size() >= LOCAL_MAX_SIZE) {
+            localTokens.clear();
+        }
+        localTokens.put(key, new Entry(value, now + (value != null ? LOCAL_TTL_MILLIS : NEGATIVE_TTL_MILLIS)));
+    }
+
+    private static boolean isTokenKey(String key) {
+        return key != null && key.contains(TOKEN_KEY_MARK);
+    }
+
+    /**
+     * 本地缓存条目，value 为 null 表示 Token 无效
+     */
+    private record Entry(String value, long expireAt) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.nebula.config.security;
+
+import com.nebula.common.constant.RedisKey;
+import com.nebula.common.exception.BusinessException;
+import com.nebula.common.exception.ErrorCode;
+import com.nebula.config.properties.SignedTokenProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自校验的一次性签名令牌
+ * 令牌内容为 用户ID、用途、过期时间、随机数 及其 HMAC-SHA256 签名，格式错误、伪造或过期的令牌仅靠计算即可拒绝。
+ * 每个用户每种用途在 Redis 中只保留最新签发的随机数，使用时原子比较并删除，保证令牌只能使用一次，
+ * 重新申请后旧令牌随之失效。
+ * 未配置有效密钥时应用照常启动，仅签发与校验令牌的请求（密码重置、邮箱验证）失败
+ */
+@Slf4j
+@Component
+public class SignedTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String FIELD_DELIMITER = "|";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 随机数与令牌一致时删除，返回是否消费成功
+     * KEYS: 随机数；ARGV: 令牌中的随机数
+     */
+    private static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    /**
+     * 签名密钥，未配置或长度不足时为 null
+     */
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public SignedTokenService(SignedTokenProperties properties, StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        if (properties.getSecret() == null || properties.getSecret().getBytes(StandardCharsets.UTF_8).length < 32) {
+            this.key = null;
+            log.error("signed-token.secret 未配置或不足 32 字节，密码重置与邮箱验证功能不可用");
+        } else {
+            this.key = new SecretKeySpec(properties.getSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        }
+    }
+
+    /**
+     * 签发令牌，同一用户同一用途之前签发的令牌随即失效
+     */
+    public String issue(Long userId, String purpose, Duration ttl) {
+        requireKey();
+        if (purpose.contains(FIELD_DELIMITER)) {
+            throw new IllegalArgumentException("令牌用途不能包含分隔符: " + purpose);
+        }
+        byte[] nonceBytes = new byte[16];
+        random.nextBytes(nonceBytes);
+        String nonce = ENCODER.encodeToString(nonceBytes);
+        long expiresAt = System.currentTimeMillis() / 1000 + ttl.toSeconds();
+        stringRedisTemplate.opsForValue().set(RedisKey.Auth.actionNonce(purpose, userId), nonce,
+                ttl.toSeconds(), TimeUnit.SECONDS);
+
+        String payload = String.join(FIELD_DELIMITER, String.valueOf(userId), purpose, String.valueOf(expiresAt), nonce);
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 校验签名与用途，不访问 Redis；格式错误、伪造或用途不符时返回 null，过期与否由 {@link SignedToken#isExpired()} 判断
+     */
+    public SignedToken parse(String token, String purpose) {
+        SignedToken signedToken = parse(token);
+        return signedToken != null && signedToken.purpose().equals(purpose) ? signedToken : null;
+    }
+
+    /**
+     * 校验签名，不限定用途
+     */
+    public SignedToken parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return null;
+            }
+            String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\" + FIELD_DELIMITER, -1);
+            if (fields.length != 4) {
+                return null;
+            }
+            return new SignedToken(Long.valueOf(fields[0]), fields[1], Long.parseLong(fields[2]), fields[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 令牌是否仍为该用户该用途最新签发且未使用的令牌
+     */
+    public boolean isCurrent(SignedToken token) {
+        String nonce = stringRedisTemplate.opsForValue().get(RedisKey.Auth.actionNonce(token.purpose(), token.userId()));
+        return token.nonce().equals(nonce);
+    }
+
+    /**
+     * 原子消费令牌，只有第一次调用返回 true
+     */
+    public boolean consume(SignedToken token) {
+        Long deleted = stringRedisTemplate.execute(CONSUME_SCRIPT,
+                List.of(RedisKey.Auth.actionNonce(token.purpose(), token.userId())), token.nonce());
+        return deleted != null && deleted > 0;
+    }
+
+    private void requireKey() {
+        if (key == null) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "签名令牌密钥未配置");
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        requireKey();
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 签名失败", e);
+        }
+    }
+
+    /**
+     * 签名令牌内容
+     *
+     * @param expiresAt 过期时间（秒级时间戳）
+     */
+    public record SignedToken(Long userId, String purpose, long expiresAt, String nonce) {
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() / 1000 >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.nebula.config.security;
+
+import cn.dev33.satoken.stp.StpLogic;
+import cn.dev33.satoken.stp.StpUtil;
+import io.jsonwebtoken.Claims;
+
+/**
+ * 无状态模式下的 Sa-Token 登录逻辑
+ * 请求携带 JWT 时只校验签名、过期时间与吊销列表，不访问会话存储；其他令牌仍按 Sa-Token 默认逻辑解析
+ */
+public class StatelessStpLogic extends StpLogic {
+
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
+
+    public StatelessStpLogic(JwtTokenProvider tokenProvider, TokenRevocationList revocationList) {
+        super(StpUtil.TYPE);
+        this.tokenProvider = tokenProvider;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public String getLoginIdNotHandle(String tokenValue) {
+        if (!JwtTokenProvider.looksLikeJwt(tokenValue)) {
+            return super.getLoginIdNotHandle(tokenValue);
+        }
+        Claims claims = tokenProvider.parse(tokenValue, JwtTokenProvider.TYPE_ACCESS);
+        if (claims == null) {
+            return null;
+        }
+        Long userId = Long.valueOf(claims.getSubject());
+        if (revocationList.isUserRevoked(userId, JwtTokenProvider.issuedAtMillis(claims))) {
+            return null;
+        }
+        return claims.getSubject();
+    }
+}
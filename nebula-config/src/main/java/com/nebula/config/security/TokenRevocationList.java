@@ -0,0 +1,219 @@
+package com.nebula.config.security;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.nebula.common.constant.RedisKey;
+import com.nebula.common.util.RedisUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无状态令牌吊销列表
+ * 按用户吊销的记录保存在 Redis，各节点持有由其复制的布隆过滤器：未命中时直接放行，不产生网络请求；
+ * 命中时再到 Redis 确认吊销时间。新增吊销通过频道广播，另有定时全量同步兜底并清理过期记录。
+ * 刷新令牌的轮换记录只在刷新时检查，不进入布隆过滤器
+ */
+@Slf4j
+public class TokenRevocationList implements MessageListener, DisposableBean {
+
+    /**
+     * 全量同步间隔（30秒）
+     */
+    private static final long SYNC_INTERVAL_SECONDS = 30;
+
+    /**
+     * 命中布隆过滤器后吊销时间的本地缓存有效期（5秒）
+     */
+    private static final long LOCAL_TTL_MILLIS = 5 * 1000L;
+
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    private final RedisUtil redisUtil;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final long retentionMillis;
+
+    private final ConcurrentHashMap<Long, Entry> localRevokedAt = new ConcurrentHashMap<>();
+
+    /**
+     * 本轮同步开始后新增的吊销用户，替换布隆过滤器后补写，避免读取全量与替换之间的新增丢失
+     */
+    private final Set<Long> pendingAdds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-revocation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Bloom bloom = new Bloom(0);
+
+    /**
+     * @param retentionMillis 吊销记录保留时长，应不小于最长的令牌有效期
+     */
+    public TokenRevocationList(RedisUtil redisUtil, RedisTemplate<String, Object> redisTemplate,
+                               RedisMessageListenerContainer listenerContainer, long retentionMillis) {
+        this.redisUtil = redisUtil;
+        this.redisTemplate = redisTemplate;
+        this.retentionMillis = retentionMillis;
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.Auth.revocationChannel()));
+        scheduler.scheduleWithFixedDelay(this::sync, 0, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 吊销用户此刻之前签发的全部令牌，用于注销和封禁；吊销记录写入失败时抛出异常
+     */
+    public void revokeUser(Long userId) {
+        redisTemplate.opsForHash().put(RedisKey.Auth.revokedUsers(), String.valueOf(userId), System.currentTimeMillis());
+        addLocal(userId);
+        redisUtil.publish(RedisKey.Auth.revocationChannel(), String.valueOf(userId));
+    }
+
+    /**
+     * 判断用户在指定时间签发的令牌是否已被吊销
+     */
+    public boolean isUserRevoked(Long userId, long issuedAtMillis) {
+        if (!bloom.mightContain(userId)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = localRevokedAt.get(userId);
+        if (entry == null || entry.expireAt() <= now) {
+            Number revokedAt = redisUtil.hGet(RedisKey.Auth.revokedUsers(), String.valueOf(userId));
+            entry = new Entry(revokedAt != null ? revokedAt.longValue() : 0L, now + LOCAL_TTL_MILLIS);
+            if (localRevokedAt.size() >= LOCAL_MAX_SIZE) {
+                localRevokedAt.clear();
+            }
+            localRevokedAt.put(userId, entry);
+        }
+        return issuedAtMillis <= entry.revokedAt();
+    }
+
+    /**
+     * 标记刷新令牌已使用，令牌此前已被使用过时返回 false
+     */
+    public boolean markRefreshTokenUsed(String tokenId, long expireAtMillis) {
+        return redisUtil.zAdd(RedisKey.Auth.revokedTokens(), tokenId, expireAtMillis);
+    }
+
+    /**
+     * 刷新令牌是否已被使用过
+     */
+    public boolean isRefreshTokenUsed(String tokenId) {
+        return redisUtil.zScore(RedisKey.Auth.revokedTokens(), tokenId) > 0;
+    }
+
+    /**
+     * 接收其他节点的吊销广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (body instanceof String userId) {
+            addLocal(Long.valueOf(userId));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void addLocal(Long userId) {
+        pendingAdds.add(userId);
+        bloom.add(userId);
+        localRevokedAt.remove(userId);
+    }
+
+    /**
+     * 清理过期记录后按 Redis 中的吊销用户重建布隆过滤器
+     */
+    private void sync() {
+        try {
+            long now = System.currentTimeMillis();
+            redisUtil.zRemoveByScore(RedisKey.Auth.revokedTokens(), 0, now);
+
+            pendingAdds.clear();
+            Map<String, Object> revoked = redisUtil.hGetAll(RedisKey.Auth.revokedUsers());
+            Bloom rebuilt = new Bloom(revoked.size());
+            revoked.forEach((userId, revokedAt) -> {
+                if (((Number) revokedAt).longValue() < now - retentionMillis) {
+                    redisUtil.hDelete(RedisKey.Auth.revokedUsers(), userId);
+                } else {
+                    rebuilt.add(Long.valueOf(userId));
+                }
+            });
+            bloom = rebuilt;
+            pendingAdds.forEach(rebuilt::add);
+        } catch (Exception e) {
+            log.warn("令牌吊销列表同步失败 | error={}", e.getMessage());
+        }
+    }
+
+    private record Entry(long revokedAt, long expireAt) {
+    }
+
+    /**
+     * 用户ID布隆过滤器，每个元素 16 位、4 个哈希函数
+     */
+    private static final class Bloom {
+
+        private static final int HASH_COUNT = 4;
+        private static final int MIN_BITS = 1 << 16;
+
+        private final AtomicLongArray words;
+        private final long size;
+
+        Bloom(int expected) {
+            int bits = MIN_BITS;
+            while (bits < expected * 16L && bits < (1 << 30)) {
+                bits <<= 1;
+            }
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.size = bits;
+        }
+
+        void add(Long userId) {
+            long[] hash = hash(userId);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long offset = offset(hash, i);
+                int index = (int) (offset >>> 6);
+                long mask = 1L << (offset & 63);
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(Long userId) {
+            long[] hash = hash(userId);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long offset = offset(hash, i);
+                if ((words.get((int) (offset >>> 6)) & (1L << (offset & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long offset(long[] hash, int i) {
+            return ((hash[0] + i * hash[1]) & Long.MAX_VALUE) % size;
+        }
+
+        private static long[] hash(Long userId) {
+            return MurmurHash.hash128(String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.nebula.config.util;
+
+import com.nebula.config.properties.TrustedProxyProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 客户端IP解析
+ * 直连地址不是受信任代理时直接使用直连地址，请求头可被客户端任意伪造；
+ * 是受信任代理时从右向左遍历 X-Forwarded-For，跳过受信任代理，第一个不受信任的地址即客户端IP
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final List<Cidr> trustedProxies;
+
+    public ClientIpResolver(TrustedProxyProperties properties) {
+        List<Cidr> proxies = new ArrayList<>();
+        for (String address : properties.getAddresses()) {
+            Cidr cidr = Cidr.parse(address);
+            if (cidr == null) {
+                throw new IllegalStateException("trusted-proxy.addresses 配置无效: " + address);
+            }
+            proxies.add(cidr);
+        }
+        this.trustedProxies = List.copyOf(proxies);
+    }
+
+    /**
+     * 解析客户端IP，request 为 null 时返回 unknown
+     */
+    public String resolve(HttpServletRequest request) {
+        if (request == null) {
+            return UNKNOWN;
+        }
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr != null ? remoteAddr : UNKNOWN;
+        }
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            String client = null;
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (parseLiteral(hop) == null) {
+                    // 无法识别的地址不再向左追溯，左侧内容不可信
+                    break;
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    return hop;
+                }
+            }
+            if (client != null) {
+                return client;
+            }
+        }
+
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && parseLiteral(realIp.trim()) != null) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * 是否为可归属到单个客户端的公网地址。未知、回环、内网地址及受信任代理可能被大量客户端共享，
+     * 返回 false，调用方不应据此封禁
+     */
+    public boolean isPublicClient(String ip) {
+        byte[] address = parseLiteral(ip);
+        if (address == null || isTrusted(ip)) {
+            return false;
+        }
+        InetAddress inet;
+        try {
+            inet = InetAddress.getByAddress(address);
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        boolean uniqueLocal = address.length == 16 && (address[0] & 0xFE) == 0xFC;
+        return !(inet.isAnyLocalAddress() || inet.isLoopbackAddress() || inet.isSiteLocalAddress()
+                || inet.isLinkLocalAddress() || uniqueLocal);
+    }
+
+    private boolean isTrusted(String ip) {
+        byte[] address = parseLiteral(ip);
+        if (address == null) {
+            return false;
+        }
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只解析IP字面量，不做 DNS 查询
+     */
+    private static byte[] parseLiteral(String ip) {
+        if (ip == null || ip.isEmpty() || ip.length() > 45) {
+            return null;
+        }
+        boolean ipv6 = ip.indexOf(':') >= 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            boolean valid = ipv6
+                    ? c == ':' || c == '.' || Character.digit(c, 16) >= 0
+                    : c == '.' || (c >= '0' && c <= '9');
+            if (!valid) {
+                return null;
+            }
+        }
+        try {
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 地址网段，未指定前缀长度时表示单个地址
+     */
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            String text = value.trim();
+            int slash = text.indexOf('/');
+            byte[] network = parseLiteral(slash >= 0 ? text.substring(0, slash) : text);
+            if (network == null) {
+                return null;
+            }
+            int prefixLength = network.length * 8;
+            if (slash >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(text.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                if (prefixLength < 0 || prefixLength > network.length * 8) {
+                    return null;
+                }
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.nebula.config.util;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -98,6 +99,52 @@ public class MinioUtil {
         return fileName;
     }
 
+    /**
+     * 上传字节数组
+     *
+     * @param bucketName  存储桶名称
+     * @param fileName    文件名
+     * @param content     文件内容
+     * @param contentType 文件类型
+     * @return 文件路径
+     */
+    @SneakyThrows
+    public String uploadBytes(String bucketName, String fileName, byte[] content, String contentType) {
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(content)) {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .stream(inputStream, content.length, -1)
+                    .contentType(contentType)
+                    .build());
+        }
+
+        log.info("文件上传成功: {}/{}, 大小: {} bytes", bucketName, fileName, content.length);
+        return fileName;
+    }
+
+    /**
+     * 检查文件是否存在
+     *
+     * @param bucketName 存储桶名称
+     * @param fileName   文件名
+     */
+    @SneakyThrows
+    public boolean fileExists(String bucketName, String fileName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
     /**
      * 删除文件
      *
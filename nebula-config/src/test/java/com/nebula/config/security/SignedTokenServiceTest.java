@@ -0,0 +1,112 @@
+package com.nebula.config.security;
+
+import com.nebula.common.exception.BusinessException;
+import com.nebula.config.properties.SignedTokenProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SignedTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private SignedTokenService service(String secret) {
+        SignedTokenProperties properties = new SignedTokenProperties();
+        properties.setSecret(secret);
+        return new SignedTokenService(properties, redisTemplate);
+    }
+
+    @Test
+    void issuedTokenParsesBack() {
+        SignedTokenService service = service(SECRET);
+
+        String token = service.issue(42L, "reset", Duration.ofMinutes(30));
+        SignedTokenService.SignedToken parsed = service.parse(token, "reset");
+
+        assertThat(parsed).isNotNull();
+        assertThat(parsed.userId()).isEqualTo(42L);
+        assertThat(parsed.purpose()).isEqualTo("reset");
+        assertThat(parsed.isExpired()).isFalse();
+        verify(valueOperations).set(anyString(), eq(parsed.nonce()), eq(1800L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsWrongPurposeAndTampering() {
+        SignedTokenService service = service(SECRET);
+        String token = service.issue(42L, "reset", Duration.ofMinutes(30));
+
+        assertThat(service.parse(token, "verify")).isNull();
+        char first = token.charAt(0);
+        assertThat(service.parse((first == 'A' ? 'B' : 'A') + token.substring(1))).isNull();
+        assertThat(service.parse(token.replace('.', '_'))).isNull();
+        assertThat(service.parse(token + ".x")).isNull();
+        assertThat(service.parse("!!!.???")).isNull();
+        assertThat(service.parse(null)).isNull();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        String token = service(SECRET).issue(1L, "reset", Duration.ofMinutes(5));
+
+        assertThat(service("fedcba9876543210fedcba9876543210").parse(token)).isNull();
+    }
+
+    @Test
+    void reportsExpiry() {
+        SignedTokenService service = service(SECRET);
+
+        SignedTokenService.SignedToken parsed = service.parse(service.issue(1L, "reset", Duration.ZERO));
+
+        assertThat(parsed).isNotNull();
+        assertThat(parsed.isExpired()).isTrue();
+    }
+
+    @Test
+    void rejectsPurposeContainingDelimiter() {
+        assertThatThrownBy(() -> service(SECRET).issue(1L, "a|b", Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startsWithoutSecretButRefusesToSign() {
+        SignedTokenService service = service("too-short");
+
+        assertThatThrownBy(() -> service.issue(1L, "reset", Duration.ofMinutes(1)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.parse("YQ.YQ")).isInstanceOf(BusinessException.class);
+        assertThat(service(null)).isNotNull();
+    }
+
+    @Test
+    void currentOnlyWhileNonceMatches() {
+        SignedTokenService service = service(SECRET);
+        SignedTokenService.SignedToken parsed = service.parse(service.issue(7L, "verify", Duration.ofMinutes(1)));
+        when(valueOperations.get(anyString())).thenReturn(parsed.nonce(), "other");
+
+        assertThat(service.isCurrent(parsed)).isTrue();
+        assertThat(service.isCurrent(parsed)).isFalse();
+    }
+}
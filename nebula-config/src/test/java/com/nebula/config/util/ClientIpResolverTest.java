@@ -0,0 +1,102 @@
+package com.nebula.config.util;
+
+import com.nebula.config.properties.TrustedProxyProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientIpResolverTest {
+
+    private static ClientIpResolver resolver(String... addresses) {
+        TrustedProxyProperties properties = new TrustedProxyProperties();
+        properties.setAddresses(List.of(addresses));
+        return new ClientIpResolver(properties);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    void ignoresHeadersFromUntrustedPeer() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+        assertThat(resolver.resolve(request("203.0.113.7", "1.2.3.4"))).isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(null)).isEqualTo("unknown");
+    }
+
+    @Test
+    void walksForwardedForFromTheRight() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8", "172.16.0.0/12");
+
+        assertThat(resolver.resolve(request("10.1.2.3", "6.6.6.6, 198.51.100.9, 172.20.0.5")))
+                .isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void stopsAtUnparseableHop() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+        assertThat(resolver.resolve(request("10.0.0.1", "198.51.100.9, evil.example, 10.0.0.2")))
+                .isEqualTo("10.0.0.2");
+        assertThat(resolver.resolve(request("10.0.0.1", "not-an-ip"))).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void fallsBackToRealIpHeader() {
+        ClientIpResolver resolver = resolver("10.0.0.0/8");
+        MockHttpServletRequest request = request("10.0.0.1", null);
+        request.addHeader("X-Real-IP", " 198.51.100.1 ");
+
+        assertThat(resolver.resolve(request)).isEqualTo("198.51.100.1");
+    }
+
+    @Test
+    void matchesPartialBytePrefixes() {
+        ClientIpResolver resolver = resolver("172.16.0.0/12");
+
+        assertThat(resolver.resolve(request("172.31.255.255", "198.51.100.1"))).isEqualTo("198.51.100.1");
+        assertThat(resolver.resolve(request("172.32.0.1", "198.51.100.1"))).isEqualTo("172.32.0.1");
+    }
+
+    @Test
+    void supportsIpv6Ranges() {
+        ClientIpResolver resolver = resolver("fc00::/7", "::1");
+
+        assertThat(resolver.resolve(request("fd12:3456::1", "2001:db8::5"))).isEqualTo("2001:db8::5");
+        assertThat(resolver.resolve(request("::1", "2001:db8::6"))).isEqualTo("2001:db8::6");
+        assertThat(resolver.resolve(request("2001:db8::1", "2001:db8::7"))).isEqualTo("2001:db8::1");
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> resolver("10.0.0.0/33")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> resolver("proxy.internal")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> resolver("10.0.0.0/x")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void classifiesPublicClients() {
+        ClientIpResolver resolver = resolver("203.0.113.0/24");
+
+        assertThat(resolver.isPublicClient("198.51.100.1")).isTrue();
+        assertThat(resolver.isPublicClient("2001:db8::1")).isTrue();
+        assertThat(resolver.isPublicClient("203.0.113.5")).isFalse();
+        assertThat(resolver.isPublicClient("10.0.0.1")).isFalse();
+        assertThat(resolver.isPublicClient("192.168.1.1")).isFalse();
+        assertThat(resolver.isPublicClient("127.0.0.1")).isFalse();
+        assertThat(resolver.isPublicClient("fd00::1")).isFalse();
+        assertThat(resolver.isPublicClient("fe80::1")).isFalse();
+        assertThat(resolver.isPublicClient("unknown")).isFalse();
+        assertThat(resolver.isPublicClient(null)).isFalse();
+    }
+}
@@ -0,0 +1,51 @@
+package com.nebula.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 邮件发件箱实体
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("email_outbox")
+@Schema(description = "邮件发件箱")
+public class EmailOutbox extends BaseEntity {
+
+    @TableId(type = IdType.AUTO)
+    @Schema(description = "邮件ID")
+    private Long id;
+
+    @Schema(description = "收件人")
+    private String recipient;
+
+    @Schema(description = "主题")
+    private String subject;
+
+    @Schema(description = "邮件内容")
+    private String content;
+
+    @Schema(description = "是否为HTML内容")
+    private Boolean html;
+
+    @Schema(description = "状态(pending-待发送,sending-发送中,sent-已发送,failed-已放弃)")
+    private String status;
+
+    @Schema(description = "已尝试次数")
+    private Integer attempts;
+
+    @Schema(description = "下次尝试时间")
+    private OffsetDateTime nextAttemptAt;
+
+    @Schema(description = "最近一次失败原因")
+    private String lastError;
+
+    @Schema(description = "发送成功时间")
+    private OffsetDateTime sentAt;
+}
@@ -0,0 +1,221 @@
+package com.nebula.service.avatar;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.nebula.common.constant.RedisKey;
+import com.nebula.config.config.MinioConfig;
+import com.nebula.config.util.MinioUtil;
+import com.nebula.model.entity.SysUser;
+import com.nebula.service.cache.UserChangedEvent;
+import com.nebula.service.mapper.SysUserMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GitHub 头像后台镜像
+ * 登录流程只提交镜像任务，不等待下载与上传。任务按 ETag / Last-Modified 发起条件请求，未变化时直接结束；
+ * 内容变化时按 SHA-256 命名对象，相同内容只上传一次，用户头像指向该对象。
+ * 每个用户的来源地址、ETag 与内容哈希保存在 Redis，同一用户一小时内最多检查一次
+ */
+@Slf4j
+@Component
+public class GitHubAvatarMirror {
+
+    private static final String OBJECT_PREFIX = "avatars/github/";
+    private static final long MIN_CHECK_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int MAX_AVATAR_BYTES = 5 * 1024 * 1024;
+
+    private static final String FIELD_SOURCE = "source";
+    private static final String FIELD_ETAG = "etag";
+    private static final String FIELD_LAST_MODIFIED = "lastModified";
+    private static final String FIELD_SHA256 = "sha256";
+    private static final String FIELD_OBJECT = "object";
+    private static final String FIELD_CHECKED_AT = "checkedAt";
+
+    private final RestTemplate restTemplate;
+    private final MinioUtil minioUtil;
+    private final MinioConfig minioConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SysUserMapper sysUserMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 排队或执行中的用户，避免同一用户的任务重复提交
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1000), runnable -> {
+        Thread thread = new Thread(runnable, "avatar-mirror");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GitHubAvatarMirror(RestTemplate restTemplate, MinioUtil minioUtil, MinioConfig minioConfig,
+                              StringRedisTemplate stringRedisTemplate, SysUserMapper sysUserMapper,
+                              ApplicationEventPublisher eventPublisher) {
+        this.restTemplate = restTemplate;
+        this.minioUtil = minioUtil;
+        this.minioConfig = minioConfig;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.sysUserMapper = sysUserMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 提交镜像任务；调用方处于事务中时在提交后执行，保证新用户已经可见
+     */
+    public void schedule(Long userId, String sourceUrl) {
+        if (userId == null || sourceUrl == null || sourceUrl.isBlank()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(userId, sourceUrl);
+                }
+            });
+        } else {
+            submit(userId, sourceUrl);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long userId, String sourceUrl) {
+        if (!pending.add(userId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    mirror(userId, sourceUrl);
+                } catch (Exception e) {
+                    log.warn("GitHub头像镜像失败 | userId={}, url={}, error={}", userId, sourceUrl, e.getMessage());
+                } finally {
+                    pending.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+            log.debug("头像镜像队列已满，跳过本次任务 | userId={}", userId);
+        }
+    }
+
+    private void mirror(Long userId, String sourceUrl) {
+        String key = RedisKey.User.avatarMirror(userId);
+        Map<Object, Object> state = stringRedisTemplate.opsForHash().entries(key);
+        boolean sameSource = sourceUrl.equals(state.get(FIELD_SOURCE));
+        long now = System.currentTimeMillis();
+        if (sameSource && state.get(FIELD_CHECKED_AT) != null
+                && now - Long.parseLong((String) state.get(FIELD_CHECKED_AT)) < MIN_CHECK_INTERVAL_MILLIS) {
+            return;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (sameSource && state.get(FIELD_SHA256) != null) {
+            if (state.get(FIELD_ETAG) != null) {
+                headers.setIfNoneMatch((String) state.get(FIELD_ETAG));
+            }
+            if (state.get(FIELD_LAST_MODIFIED) != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, (String) state.get(FIELD_LAST_MODIFIED));
+            }
+        }
+        ResponseEntity<byte[]> response = restTemplate.exchange(sourceUrl, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            stringRedisTemplate.opsForHash().put(key, FIELD_CHECKED_AT, String.valueOf(now));
+            stringRedisTemplate.expire(key, RedisKey.User.AVATAR_MIRROR_TTL, TimeUnit.SECONDS);
+            log.debug("GitHub头像未变化 | userId={}", userId);
+            return;
+        }
+        byte[] content = response.getBody();
+        if (content == null || content.length == 0 || content.length > MAX_AVATAR_BYTES) {
+            log.warn("GitHub头像内容无效，跳过镜像 | userId={}, size={}", userId, content == null ? 0 : content.length);
+            return;
+        }
+
+        String sha256 = sha256Hex(content);
+        String objectName = (String) state.get(FIELD_OBJECT);
+        if (!sha256.equals(state.get(FIELD_SHA256)) || objectName == null) {
+            MediaType contentType = response.getHeaders().getContentType();
+            objectName = OBJECT_PREFIX + sha256 + extensionOf(contentType);
+            if (!minioUtil.fileExists(minioConfig.getBucketName(), objectName)) {
+                minioUtil.uploadBytes(minioConfig.getBucketName(), objectName, content,
+                        contentType != null ? contentType.toString() : MediaType.IMAGE_JPEG_VALUE);
+            }
+            sysUserMapper.update(null, new LambdaUpdateWrapper<SysUser>()
+                    .eq(SysUser::getId, userId)
+                    .set(SysUser::getAvatarName, objectName)
+                    .set(SysUser::getAvatarSize, (long) content.length)
+                    .set(SysUser::getAvatarUrl, objectName));
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
+            log.info("GitHub头像已镜像 | userId={}, object={}", userId, objectName);
+        }
+
+        Map<String, String> updated = new HashMap<>();
+        updated.put(FIELD_SOURCE, sourceUrl);
+        updated.put(FIELD_SHA256, sha256);
+        updated.put(FIELD_OBJECT, objectName);
+        updated.put(FIELD_CHECKED_AT, String.valueOf(now));
+        String etag = response.getHeaders().getETag();
+        if (etag != null) {
+            updated.put(FIELD_ETAG, etag);
+        }
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (lastModified != null) {
+            updated.put(FIELD_LAST_MODIFIED, lastModified);
+        }
+        stringRedisTemplate.delete(key);
+        stringRedisTemplate.opsForHash().putAll(key, updated);
+        stringRedisTemplate.expire(key, RedisKey.User.AVATAR_MIRROR_TTL, TimeUnit.SECONDS);
+    }
+
+    private static String extensionOf(MediaType contentType) {
+        if (contentType == null) {
+            return ".jpg";
+        }
+        return switch (contentType.getSubtype()) {
+            case "png" -> ".png";
+            case "gif" -> ".gif";
+            case "webp" -> ".webp";
+            default -> ".jpg";
+        };
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.util.List;
 public class BlogNoteService {
 
     private final com.nebula.service.mapper.blog.BlogArticleMapper blogArticleMapper;
-    private final com.nebula.service.mapper.SysUserMapper sysUserMapper;
+    private final com.nebula.service.cache.UserProfileCache userProfileCache;
 
     /**
      * 创建日常碎碎念
@@ -119,8 +119,8 @@ public class BlogNoteService {
      * 获取用户昵称
      */
     private String getUserNickname(Long userId) {
-        com.nebula.model.entity.SysUser user = sysUserMapper.selectById(userId);
-        return user != null ? user.getNickname() : "未知用户";
+        com.nebula.service.cache.UserProfile profile = userProfileCache.get(userId);
+        return profile != null ? profile.nickname() : "未知用户";
     }
 
     /**
@@ -0,0 +1,350 @@
+package com.nebula.service.cache;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nebula.common.constant.RedisKey;
+import com.nebula.model.entity.SysUser;
+import com.nebula.service.mapper.SysUserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户名与邮箱布隆过滤器
+ * 位图保存在 Redis，本节点持有只读副本并定期同步；注册、用户变更时同时写入两端，
+ * 后台任务定期从 sys_users 全量重建以清除已删除或修改前的旧值。
+ * 判定"一定不存在"时调用方可跳过唯一性查询，"可能存在"时仍需查库确认
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBloomFilter {
+
+    /**
+     * 哈希函数个数
+     */
+    private static final int HASH_COUNT = 7;
+
+    /**
+     * 每个元素分配的位数，7 个哈希函数下误判率约 0.1%
+     */
+    private static final int BITS_PER_ELEMENT = 16;
+
+    /**
+     * 最小位图大小（128KB）
+     */
+    private static final int MIN_BITS = 1 << 20;
+
+    /**
+     * 重建时每批读取的用户数
+     */
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    /**
+     * 本地副本同步间隔（1分钟）
+     */
+    private static final long SYNC_INTERVAL_SECONDS = 60;
+
+    /**
+     * 全量重建间隔（6小时）
+     */
+    private static final long REBUILD_INTERVAL_SECONDS = 6 * 60 * 60;
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    /**
+     * 位图存在且长度与本地副本一致时才置位，避免创建长度不完整的位图或按旧长度写入重建后的位图。
+     * 返回 1 成功，0 位图缺失，2 长度不一致
+     * KEYS: 位图；ARGV[1]: 本地副本字节数，ARGV[2..]: 位偏移
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            local length = redis.call('STRLEN', KEYS[1])
+            if length == 0 then
+                return 0
+            end
+            if length ~= tonumber(ARGV[1]) then
+                return 2
+            end
+            for i = 2, #ARGV do
+                redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 检查位图中的位是否全部置位，位图缺失或长度与本地副本不一致时视为可能存在
+     * KEYS: 位图；ARGV[1]: 本地副本字节数，ARGV[2..]: 位偏移
+     */
+    private static final RedisScript<Long> TEST_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('STRLEN', KEYS[1]) ~= tonumber(ARGV[1]) then
+                return 1
+            end
+            for i = 2, #ARGV do
+                if redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then
+                    return 0
+                end
+            end
+            return 1
+            """, Long.class);
+
+    private final SysUserMapper sysUserMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-bloom");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 本地位图副本，未加载完成时为 null，此时所有判定均视为"可能存在"
+     */
+    private volatile byte[] bits;
+
+    @PostConstruct
+    public void init() {
+        scheduler.execute(this::sync);
+        scheduler.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_SECONDS, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, REBUILD_INTERVAL_SECONDS, REBUILD_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 用户名是否可能已存在，返回 false 时一定不存在
+     */
+    public boolean mightContainUsername(String username) {
+        return mightContain(USERNAME_PREFIX + username);
+    }
+
+    /**
+     * 邮箱是否可能已存在，返回 false 时一定不存在
+     */
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL_PREFIX + email);
+    }
+
+    /**
+     * 邮箱是否可能已存在，本地副本判定不存在时再以 Redis 位图确认。
+     * 其他节点新写入的邮箱要到下次同步才进入本地副本，用于不能漏判的场景
+     */
+    public boolean mightContainEmailStrict(String email) {
+        String value = EMAIL_PREFIX + email;
+        byte[] current = bits;
+        if (current == null || email == null || mightContain(value)) {
+            return true;
+        }
+        long size = (long) current.length * 8;
+        long[] hash = hash(value);
+        List<String> args = new ArrayList<>(HASH_COUNT + 1);
+        args.add(String.valueOf(current.length));
+        for (int i = 0; i < HASH_COUNT; i++) {
+            args.add(String.valueOf(offset(hash, i, size)));
+        }
+        try {
+            Long result = stringRedisTemplate.execute(TEST_SCRIPT, List.of(RedisKey.User.accountBloom()), args.toArray());
+            return result == null || result != 0;
+        } catch (Exception e) {
+            log.warn("账号布隆过滤器查询失败，回退到数据库查询 | error={}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 写入用户的用户名与邮箱
+     */
+    public void add(String username, String email) {
+        add(username, email, true);
+    }
+
+    private void add(String username, String email, boolean retryOnResize) {
+        byte[] current = bits;
+        if (current == null) {
+            return;
+        }
+        long size = (long) current.length * 8;
+        List<String> args = new ArrayList<>(HASH_COUNT * 2 + 1);
+        args.add(String.valueOf(current.length));
+        // 同一字节上的并发置位需串行，避免本地副本丢位
+        synchronized (current) {
+            collectOffsets(current, size, username == null ? null : USERNAME_PREFIX + username, args);
+            collectOffsets(current, size, email == null ? null : EMAIL_PREFIX + email, args);
+        }
+        if (args.size() == 1) {
+            return;
+        }
+        try {
+            Long result = stringRedisTemplate.execute(ADD_SCRIPT, List.of(RedisKey.User.accountBloom()), args.toArray());
+            // 其他节点已按新大小重建，重新加载后按新长度再写一次
+            if (result != null && result == 2 && retryOnResize && load()) {
+                add(username, email, false);
+            }
+        } catch (Exception e) {
+            log.warn("账号布隆过滤器写入失败 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用户变更事件，事务提交后写入当前的用户名与邮箱；旧值由定期重建清除
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null || bits == null) {
+            return;
+        }
+        SysUser sysUser = sysUserMapper.selectOne(new LambdaQueryWrapper<SysUser>()
+                .select(SysUser::getId, SysUser::getUsername, SysUser::getEmail)
+                .eq(SysUser::getId, event.userId()));
+        if (sysUser != null) {
+            add(sysUser.getUsername(), sysUser.getEmail());
+        }
+    }
+
+    /**
+     * 从 sys_users 全量重建位图，写入临时键后原子替换
+     */
+    public void rebuild() {
+        long count = sysUserMapper.selectCount(null);
+        int size = MIN_BITS;
+        while (size < count * 2 * BITS_PER_ELEMENT && size < (1 << 30)) {
+            size <<= 1;
+        }
+        byte[] rebuilt = new byte[size / 8];
+
+        long lastId = 0;
+        while (true) {
+            List<SysUser> users = sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                    .select(SysUser::getId, SysUser::getUsername, SysUser::getEmail)
+                    .gt(SysUser::getId, lastId)
+                    .orderByAsc(SysUser::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE));
+            for (SysUser user : users) {
+                setLocal(rebuilt, user.getUsername() == null ? null : USERNAME_PREFIX + user.getUsername());
+                setLocal(rebuilt, user.getEmail() == null ? null : EMAIL_PREFIX + user.getEmail());
+            }
+            if (!users.isEmpty()) {
+                lastId = users.get(users.size() - 1).getId();
+            }
+            if (users.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        byte[] key = RedisKey.User.accountBloom().getBytes(StandardCharsets.UTF_8);
+        byte[] tempKey = (RedisKey.User.accountBloom() + ":rebuild").getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(tempKey, rebuilt);
+            connection.keyCommands().rename(tempKey, key);
+            return null;
+        });
+        bits = rebuilt;
+
+        // 替换前其他节点写入旧位图的新用户会丢失，按ID补写重建期间注册的用户
+        sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                .select(SysUser::getId, SysUser::getUsername, SysUser::getEmail)
+                .gt(SysUser::getId, lastId)
+        ).forEach(user -> add(user.getUsername(), user.getEmail()));
+        log.info("账号布隆过滤器已重建 | users={}, bits={}", count, size);
+    }
+
+    private void sync() {
+        try {
+            if (!load()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("账号布隆过滤器同步失败 | error={}", e.getMessage());
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("账号布隆过滤器重建失败，唯一性校验将回退到数据库查询 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从 Redis 加载位图到本地，位图缺失或长度异常时返回 false
+     */
+    private boolean load() {
+        byte[] key = RedisKey.User.accountBloom().getBytes(StandardCharsets.UTF_8);
+        byte[] loaded = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(key));
+        if (loaded == null || loaded.length * 8 < MIN_BITS || Integer.bitCount(loaded.length) != 1) {
+            return false;
+        }
+        bits = loaded;
+        return true;
+    }
+
+    private boolean mightContain(String value) {
+        byte[] current = bits;
+        if (current == null || value == null) {
+            return true;
+        }
+        long size = (long) current.length * 8;
+        long[] hash = hash(value);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long offset = offset(hash, i, size);
+            if ((current[(int) (offset >>> 3)] & (0x80 >>> (offset & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void collectOffsets(byte[] target, long size, String value, List<String> offsets) {
+        if (value == null) {
+            return;
+        }
+        long[] hash = hash(value);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long offset = offset(hash, i, size);
+            target[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+            offsets.add(String.valueOf(offset));
+        }
+    }
+
+    private void setLocal(byte[] target, String value) {
+        if (value == null) {
+            return;
+        }
+        long size = (long) target.length * 8;
+        long[] hash = hash(value);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long offset = offset(hash, i, size);
+            target[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+        }
+    }
+
+    private static long[] hash(String value) {
+        return MurmurHash.hash128(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 双重哈希生成第 i 个位偏移，位序与 Redis SETBIT 一致（字节内高位在前）
+     */
+    private static long offset(long[] hash, int i, long size) {
+        return ((hash[0] + i * hash[1]) & Long.MAX_VALUE) % size;
+    }
+}
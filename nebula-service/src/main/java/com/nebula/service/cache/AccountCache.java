@@ -0,0 +1,231 @@
+package com.nebula.service.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nebula.common.constant.RedisKey;
+import com.nebula.common.util.RedisUtil;
+import com.nebula.model.entity.SysUser;
+import com.nebula.service.mapper.SysUserMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 登录账号解析缓存
+ * 本地缓存 + Redis 两级缓存：账号（用户名或邮箱）映射到用户ID，用户ID映射到登录凭据。
+ * 凭据按用户ID失效，并通过 Redis 频道通知其他节点清理本地凭据；
+ * 用户名或邮箱修改后，旧账号映射在读取时因凭据不再匹配而被丢弃
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountCache implements MessageListener {
+
+    /**
+     * 本地缓存有效期（1分钟），其他节点的失效广播丢失时作为兜底
+     */
+    private static final long LOCAL_TTL_MILLIS = 60 * 1000L;
+
+    /**
+     * 本地缓存最大条目数，超出后整体清空
+     */
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    /**
+     * 失效代数分段数（2 的幂），按用户ID取模
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final SysUserMapper sysUserMapper;
+    private final RedisUtil redisUtil;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ConcurrentHashMap<String, Alias> localAliases = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> localCredentials = new ConcurrentHashMap<>();
+
+    /**
+     * 按用户分段的失效代数，读库期间发生失效时放弃回填，避免旧凭据覆盖
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 全局失效计数，按账号读库时尚不知道用户ID，以此判断期间是否发生过失效
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.User.credentialInvalidationChannel()));
+    }
+
+    /**
+     * 根据用户名或邮箱获取登录凭据，账号不存在时返回 null
+     */
+    public AccountCredential get(String account) {
+        if (account == null || account.isBlank()) {
+            return null;
+        }
+        String key = account.trim();
+
+        Long userId = resolveUserId(key);
+        if (userId != null) {
+            AccountCredential credential = getCredential(userId);
+            if (credential != null && credential.matches(key)) {
+                return credential;
+            }
+            removeAlias(key);
+        }
+
+        long startEvictions = evictions.get();
+        SysUser sysUser = loadByAccount(key);
+        if (sysUser == null) {
+            return null;
+        }
+        AccountCredential credential = AccountCredential.of(sysUser);
+        if (evictions.get() == startEvictions) {
+            putCredential(credential);
+        }
+        putAlias(key, credential.getUserId());
+        return credential;
+    }
+
+    /**
+     * 失效指定用户的登录凭据
+     */
+    public void evict(Long userId) {
+        markEvicted(userId);
+        localCredentials.remove(userId);
+        redisUtil.delete(RedisKey.User.credential(userId));
+        redisUtil.publish(RedisKey.User.credentialInvalidationChannel(), userId);
+    }
+
+    /**
+     * 用户变更事件，事务提交后失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        evict(event.userId());
+        log.debug("登录凭据缓存已失效 | userId={}", event.userId());
+    }
+
+    /**
+     * 接收其他节点的失效广播
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Redis 中较小的 Long 会被反序列化为 Integer
+        Object userId = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (userId instanceof Number number) {
+            markEvicted(number.longValue());
+            localCredentials.remove(number.longValue());
+        }
+    }
+
+    private Long resolveUserId(String account) {
+        long now = System.currentTimeMillis();
+        Alias alias = localAliases.get(account);
+        if (alias != null && alias.expireAt() > now) {
+            return alias.userId();
+        }
+        // Redis 中较小的 Long 会被反序列化为 Integer
+        Number cached = redisUtil.get(RedisKey.User.account(account));
+        if (cached == null) {
+            return null;
+        }
+        putLocal(localAliases, account, new Alias(cached.longValue(), now + LOCAL_TTL_MILLIS));
+        return cached.longValue();
+    }
+
+    private AccountCredential getCredential(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = localCredentials.get(userId);
+        if (entry != null && entry.expireAt() > now) {
+            return entry.credential();
+        }
+        int stripe = stripe(userId);
+        long startGeneration = generations.get(stripe);
+        AccountCredential credential = redisUtil.get(RedisKey.User.credential(userId));
+        boolean fromDb = credential == null;
+        if (fromDb) {
+            SysUser sysUser = sysUserMapper.selectById(userId);
+            if (sysUser == null) {
+                return null;
+            }
+            credential = AccountCredential.of(sysUser);
+        }
+        if (generations.get(stripe) != startGeneration) {
+            return credential;
+        }
+        if (fromDb) {
+            redisUtil.set(RedisKey.User.credential(userId), credential, RedisKey.User.ACCOUNT_TTL);
+        }
+        putLocal(localCredentials, userId, new Entry(credential, now + LOCAL_TTL_MILLIS));
+        return credential;
+    }
+
+    private void markEvicted(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        evictions.incrementAndGet();
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    private void putCredential(AccountCredential credential) {
+        redisUtil.set(RedisKey.User.credential(credential.getUserId()), credential, RedisKey.User.ACCOUNT_TTL);
+        putLocal(localCredentials, credential.getUserId(),
+                new Entry(credential, System.currentTimeMillis() + LOCAL_TTL_MILLIS));
+    }
+
+    private void putAlias(String account, Long userId) {
+        redisUtil.set(RedisKey.User.account(account), userId, RedisKey.User.ACCOUNT_TTL);
+        putLocal(localAliases, account, new Alias(userId, System.currentTimeMillis() + LOCAL_TTL_MILLIS));
+    }
+
+    private void removeAlias(String account) {
+        localAliases.remove(account);
+        redisUtil.delete(RedisKey.User.account(account));
+    }
+
+    private <K, V> void putLocal(ConcurrentHashMap<K, V> cache, K key, V value) {
+        if (cache.size() >= LOCAL_MAX_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
+    /**
+     * 拆分为两次单列等值查询，分别命中用户名和邮箱索引；含 @ 时优先按邮箱查询
+     */
+    private SysUser loadByAccount(String account) {
+        boolean emailFirst = account.indexOf('@') >= 0;
+        SysUser sysUser = sysUserMapper.selectOne(new LambdaQueryWrapper<SysUser>()
+                .eq(emailFirst ? SysUser::getEmail : SysUser::getUsername, account));
+        if (sysUser == null) {
+            sysUser = sysUserMapper.selectOne(new LambdaQueryWrapper<SysUser>()
+                    .eq(emailFirst ? SysUser::getUsername : SysUser::getEmail, account));
+        }
+        return sysUser;
+    }
+
+    private record Alias(Long userId, long expireAt) {
+    }
+
+    private record Entry(AccountCredential credential, long expireAt) {
+    }
+}
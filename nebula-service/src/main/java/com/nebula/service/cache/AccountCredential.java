@@ -0,0 +1,46 @@
+package com.nebula.service.cache;
+
+import com.nebula.model.entity.SysUser;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 登录凭据
+ * 登录校验所需的最小用户信息，由 {@link AccountCache} 缓存
+ */
+@Data
+public class AccountCredential implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private String username;
+
+    private String email;
+
+    /**
+     * 密码哈希
+     */
+    private String password;
+
+    private Integer accountStatus;
+
+    public static AccountCredential of(SysUser sysUser) {
+        AccountCredential credential = new AccountCredential();
+        credential.setUserId(sysUser.getId());
+        credential.setUsername(sysUser.getUsername());
+        credential.setEmail(sysUser.getEmail());
+        credential.setPassword(sysUser.getPassword());
+        credential.setAccountStatus(sysUser.getAccountStatus());
+        return credential;
+    }
+
+    /**
+     * 账号是否仍对应该凭据（用户名或邮箱修改后旧映射失效）
+     */
+    public boolean matches(String account) {
+        return account.equals(username) || account.equals(email);
+    }
+}
@@ -0,0 +1,130 @@
+package com.nebula.service.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nebula.model.entity.system.SysDictItem;
+import com.nebula.model.entity.system.SysDictType;
+import com.nebula.service.mapper.system.SysDictItemMapper;
+import com.nebula.service.mapper.system.SysDictTypeMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 数据字典缓存
+ * 启动时将所有启用的字典类型及字典项加载为不可变快照，字典写入后整体重建并原子替换，
+ * 读取不再访问数据库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DictCache {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    /**
+     * 快照最长有效期（5分钟），多实例部署时作为其他节点的刷新兜底
+     */
+    private static final long REFRESH_INTERVAL_MILLIS = 5 * 60 * 1000L;
+
+    private final SysDictTypeMapper sysDictTypeMapper;
+    private final SysDictItemMapper sysDictItemMapper;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), 0L);
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("数据字典预加载失败，将在首次读取时重试 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 根据字典编码获取启用的字典项（按排序升序）
+     */
+    public List<SysDictItem> getItems(String dictCode) {
+        return currentSnapshot().items().getOrDefault(dictCode, List.of());
+    }
+
+    /**
+     * 批量获取字典项，结果按请求顺序返回，不存在的编码对应空列表
+     */
+    public Map<String, List<SysDictItem>> getItems(Collection<String> dictCodes) {
+        Map<String, List<SysDictItem>> items = currentSnapshot().items();
+        Map<String, List<SysDictItem>> result = new LinkedHashMap<>();
+        for (String dictCode : dictCodes) {
+            result.put(dictCode, items.getOrDefault(dictCode, List.of()));
+        }
+        return result;
+    }
+
+    /**
+     * 从数据库重建快照并原子替换
+     */
+    public void reload() {
+        List<SysDictType> types = sysDictTypeMapper.selectList(
+                new LambdaQueryWrapper<SysDictType>()
+                        .eq(SysDictType::getStatus, ACTIVE)
+        );
+        Map<Long, String> codeByTypeId = types.stream()
+                .collect(Collectors.toMap(SysDictType::getId, SysDictType::getDictCode, (a, b) -> a));
+
+        Map<String, List<SysDictItem>> grouped = new LinkedHashMap<>();
+        types.forEach(type -> grouped.put(type.getDictCode(), new ArrayList<>()));
+        if (!codeByTypeId.isEmpty()) {
+            sysDictItemMapper.selectList(
+                    new LambdaQueryWrapper<SysDictItem>()
+                            .in(SysDictItem::getDictTypeId, codeByTypeId.keySet())
+                            .eq(SysDictItem::getStatus, ACTIVE)
+                            .orderByAsc(SysDictItem::getSortOrder)
+            ).forEach(item -> grouped.get(codeByTypeId.get(item.getDictTypeId())).add(item));
+        }
+
+        Map<String, List<SysDictItem>> items = grouped.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue())));
+        snapshot = new Snapshot(items, System.currentTimeMillis());
+        log.info("数据字典快照已加载 | types={}", items.size());
+    }
+
+    /**
+     * 字典变更事件，事务提交后重建快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDictChanged(DictChangedEvent event) {
+        log.debug("数据字典变更 | source={}", event.source());
+        reload();
+    }
+
+    /**
+     * 获取当前快照，过期时由单个线程刷新，其余线程继续读取旧快照
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (System.currentTimeMillis() - current.loadedAt() > REFRESH_INTERVAL_MILLIS
+                && reloading.compareAndSet(false, true)) {
+            try {
+                reload();
+            } catch (Exception e) {
+                log.warn("数据字典刷新失败，继续使用旧快照 | error={}", e.getMessage());
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return snapshot;
+    }
+
+    private record Snapshot(Map<String, List<SysDictItem>> items, long loadedAt) {
+    }
+}
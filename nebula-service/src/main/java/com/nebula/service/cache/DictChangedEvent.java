@@ -0,0 +1,10 @@
+package com.nebula.service.cache;
+
+/**
+ * 数据字典变更事件
+ * 字典类型或字典项增删改时发布，由 {@link DictCache} 在事务提交后重新加载快照
+ *
+ * @param source 变更来源，如 sys_dict_type、sys_dict_item
+ */
+public record DictChangedEvent(String source) {
+}
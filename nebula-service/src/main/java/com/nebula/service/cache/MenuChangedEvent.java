@@ -0,0 +1,14 @@
+package com.nebula.service.cache;
+
+/**
+ * 菜单变更事件
+ * 菜单增删改或角色菜单分配变更时发布，由 {@link MenuTreeCache} 在事务提交后失效菜单树缓存
+ *
+ * @param roleId 菜单分配发生变更的角色ID，为 null 表示菜单本身变更，全部失效
+ */
+public record MenuChangedEvent(Long roleId) {
+
+    public static MenuChangedEvent allMenus() {
+        return new MenuChangedEvent(null);
+    }
+}
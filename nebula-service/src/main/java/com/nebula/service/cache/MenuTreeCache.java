@@ -0,0 +1,99 @@
+package com.nebula.service.cache;
+
+import com.nebula.model.entity.system.SysMenu;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 菜单树缓存
+ * 按排序后的角色ID集合缓存构建好的菜单树，角色相同的用户共享同一份缓存。
+ * 菜单实体是可变对象，缓存中保存独立副本，每次读取也返回新副本，调用方修改不会污染缓存
+ */
+@Slf4j
+@Component
+public class MenuTreeCache {
+
+    /**
+     * 全量菜单树的缓存键
+     */
+    public static final String ALL_MENUS_KEY = "*";
+
+    /**
+     * 本地缓存有效期（1分钟），多实例部署时作为其他节点的失效兜底
+     */
+    private static final long LOCAL_TTL_MILLIS = 60 * 1000L;
+
+    private static final String DELIMITER = ",";
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 根据角色ID集合生成缓存键，如 [3, 1, 3] -> "1,3"
+     */
+    public static String roleKey(Collection<Long> roleIds) {
+        return roleIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(DELIMITER));
+    }
+
+    /**
+     * 获取菜单树，未命中时通过 loader 构建
+     */
+    public List<SysMenu> get(String key, Supplier<List<SysMenu>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(key);
+        if (entry != null && entry.expireAt() > now) {
+            return copyTree(entry.tree());
+        }
+        List<SysMenu> tree = loader.get();
+        cache.put(key, new Entry(copyTree(tree), now + LOCAL_TTL_MILLIS));
+        return tree;
+    }
+
+    /**
+     * 菜单变更事件，事务提交后失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.roleId() == null) {
+            cache.clear();
+            log.debug("菜单树缓存已全部失效");
+            return;
+        }
+        String roleId = String.valueOf(event.roleId());
+        cache.keySet().removeIf(key -> !ALL_MENUS_KEY.equals(key)
+                && Arrays.asList(key.split(DELIMITER)).contains(roleId));
+        log.debug("菜单树缓存已失效 | roleId={}", roleId);
+    }
+
+    private static List<SysMenu> copyTree(List<SysMenu> menus) {
+        if (menus == null) {
+            return null;
+        }
+        List<SysMenu> copies = new ArrayList<>(menus.size());
+        for (SysMenu menu : menus) {
+            SysMenu copy = new SysMenu();
+            BeanUtils.copyProperties(menu, copy, "children");
+            copy.setChildren(copyTree(menu.getChildren()));
+            copies.add(copy);
+        }
+        return List.copyOf(copies);
+    }
+
+    private record Entry(List<SysMenu> tree, long expireAt) {
+    }
+}
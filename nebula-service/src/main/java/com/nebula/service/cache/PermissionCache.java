@@ -0,0 +1,131 @@
+package com.nebula.service.cache;
+
+import com.nebula.common.constant.RedisKey;
+import com.nebula.common.util.RedisUtil;
+import com.nebula.service.mapper.system.SysMenuMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * 用户权限缓存
+ * 本地缓存 + Redis 两级缓存，按用户ID保存不可变的权限标识集合及其位图编码，
+ * 避免每次权限校验都执行 selectPermsByUserId 多表关联查询。
+ * Redis 中保存权限标识字符串，位图ID仅在本进程内有效，只保存在本地缓存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionCache {
+
+    /**
+     * 本地缓存有效期（1分钟），多实例部署时作为其他节点的失效兜底
+     */
+    private static final long LOCAL_TTL_MILLIS = 60 * 1000L;
+
+    /**
+     * 本地缓存最大条目数，超出后整体清空
+     */
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    /**
+     * 失效版本号分段数（2的幂），按用户ID取模
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final SysMenuMapper sysMenuMapper;
+    private final RedisUtil redisUtil;
+    private final PermissionRegistry permissionRegistry;
+
+    private final ConcurrentHashMap<Long, Entry> localCache = new ConcurrentHashMap<>();
+
+    /**
+     * 按用户分段的失效版本号，回源期间该用户被失效过时不回填缓存，避免旧权限覆盖失效结果
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 获取用户权限标识集合（不可变）
+     */
+    public Set<String> get(Long userId) {
+        return getEntry(userId).perms();
+    }
+
+    /**
+     * 获取用户权限位图
+     */
+    public PermissionSet getPermissionSet(Long userId) {
+        return getEntry(userId).bits();
+    }
+
+    private Entry getEntry(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = localCache.get(userId);
+        if (entry != null && entry.expireAt() > now) {
+            return entry;
+        }
+
+        int stripe = stripe(userId);
+        long startGeneration = generations.get(stripe);
+        String key = RedisKey.Permission.userPerms(userId);
+        Set<String> perms;
+        List<String> cached = redisUtil.get(key);
+        if (cached != null) {
+            perms = Set.copyOf(cached);
+        } else {
+            perms = sysMenuMapper.selectPermsByUserId(userId).stream()
+                    .filter(p -> p != null && !p.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+            if (generations.get(stripe) == startGeneration) {
+                // Redis 使用带类型信息的 Jackson 序列化，这里存 ArrayList 以便反序列化
+                redisUtil.set(key, new ArrayList<>(perms), RedisKey.Permission.USER_PERMS_TTL);
+            }
+        }
+
+        entry = new Entry(perms, permissionRegistry.encode(perms), now + LOCAL_TTL_MILLIS);
+        if (generations.get(stripe) == startGeneration) {
+            if (localCache.size() >= LOCAL_MAX_SIZE) {
+                localCache.clear();
+            }
+            localCache.put(userId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 失效指定用户的权限缓存
+     */
+    public void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        redisUtil.delete(RedisKey.Permission.userPerms(userId));
+        localCache.remove(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * 权限变更事件，事务提交后失效，避免提交前被并发请求以旧数据回填
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        if (event.userIds() == null || event.userIds().isEmpty()) {
+            return;
+        }
+        event.userIds().stream().filter(Objects::nonNull).distinct().forEach(this::evict);
+        log.debug("用户权限缓存已失效 | userIds={}", event.userIds());
+    }
+
+    private record Entry(Set<String> perms, PermissionSet bits, long expireAt) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.nebula.service.cache;
+
+import java.util.Collection;
+
+/**
+ * 用户权限变更事件
+ * 角色授权、用户角色、菜单变更时发布，由 {@link PermissionCache} 在事务提交后失效对应用户的权限缓存
+ *
+ * @param userIds 受影响的用户ID
+ */
+public record PermissionChangedEvent(Collection<Long> userIds) {
+}
@@ -0,0 +1,104 @@
+package com.nebula.service.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nebula.model.entity.system.SysMenu;
+import com.nebula.service.mapper.system.SysMenuMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 权限标识注册表
+ * 为每个 sys_menu.permission 分配稠密整数ID，供 {@link PermissionSet} 编码使用。
+ * ID 仅在本进程内有效，不落 Redis；启动后新增的权限标识在首次使用时分配
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry {
+
+    /**
+     * 超级权限标识
+     */
+    public static final String ALL_PERMISSION = "*:*:*";
+
+    private static final String WILDCARD = "*";
+    private static final String DELIMITER = ":";
+
+    private final SysMenuMapper sysMenuMapper;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @PostConstruct
+    public void preload() {
+        intern(ALL_PERMISSION);
+        try {
+            sysMenuMapper.selectList(
+                    new LambdaQueryWrapper<SysMenu>()
+                            .select(SysMenu::getPermission)
+                            .isNotNull(SysMenu::getPermission)
+                            .ne(SysMenu::getPermission, "")
+            ).forEach(menu -> intern(menu.getPermission()));
+            log.info("权限标识注册表已加载 | size={}", ids.size());
+        } catch (Exception e) {
+            log.warn("权限标识预加载失败，将在首次使用时分配 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取权限标识ID，不存在则分配
+     */
+    public int intern(String permission) {
+        Integer id = ids.get(permission);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(permission, p -> nextId.getAndIncrement());
+    }
+
+    /**
+     * 获取权限标识ID，未注册返回 -1
+     */
+    public int idOf(String permission) {
+        Integer id = ids.get(permission);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 展开可授予该权限的通配符形式：a:b:c -> [a:b:c, a:b:*, a:*:*, *:*:*]
+     */
+    public static List<String> grantingPermissions(String permission) {
+        String[] segments = permission.split(DELIMITER);
+        List<String> result = new ArrayList<>(segments.length + 1);
+        result.add(permission);
+        for (int wildcards = 1; wildcards <= segments.length; wildcards++) {
+            String[] parts = Arrays.copyOf(segments, segments.length);
+            Arrays.fill(parts, segments.length - wildcards, segments.length, WILDCARD);
+            String expanded = String.join(DELIMITER, parts);
+            if (!result.contains(expanded)) {
+                result.add(expanded);
+            }
+        }
+        if (!result.contains(ALL_PERMISSION)) {
+            result.add(ALL_PERMISSION);
+        }
+        return result;
+    }
+
+    /**
+     * 将权限标识集合编码为位图
+     */
+    public PermissionSet encode(Collection<String> permissions) {
+        return PermissionSet.of(permissions.stream().mapToInt(this::intern).toArray());
+    }
+}
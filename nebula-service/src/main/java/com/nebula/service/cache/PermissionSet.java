@@ -0,0 +1,127 @@
+package com.nebula.service.cache;
+
+import java.util.Arrays;
+
+/**
+ * 不可变权限位图
+ * 每个权限标识由 {@link PermissionRegistry} 分配稠密整数ID，用户授权编码为位图，
+ * 单个权限校验为一次位测试，多个权限校验为按字 AND
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 根据权限ID构建位图
+     */
+    public static PermissionSet of(int... ids) {
+        int max = -1;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            if (id >= 0) {
+                words[id >>> 6] |= 1L << id;
+            }
+        }
+        return new PermissionSet(words);
+    }
+
+    /**
+     * 合并多个位图
+     */
+    public static PermissionSet union(PermissionSet... sets) {
+        int length = 0;
+        for (PermissionSet set : sets) {
+            length = Math.max(length, set.words.length);
+        }
+        long[] words = new long[length];
+        for (PermissionSet set : sets) {
+            for (int i = 0; i < set.words.length; i++) {
+                words[i] |= set.words[i];
+            }
+        }
+        return new PermissionSet(words);
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = id >>> 6;
+        return index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否与给定位图存在交集
+     */
+    public boolean intersects(PermissionSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否包含给定位图的全部权限
+     */
+    public boolean containsAll(PermissionSet other) {
+        for (int i = 0; i < other.words.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((word & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionSet other)) {
+            return false;
+        }
+        int length = Math.max(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            long a = i < words.length ? words[i] : 0L;
+            long b = i < other.words.length ? other.words[i] : 0L;
+            if (a != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int end = words.length;
+        while (end > 0 && words[end - 1] == 0) {
+            end--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, end));
+    }
+}
@@ -0,0 +1,10 @@
+package com.nebula.service.cache;
+
+/**
+ * 用户变更事件
+ * 用户资料、密码、状态变更或删除时发布，由用户相关缓存在事务提交后失效
+ *
+ * @param userId 发生变更的用户ID
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,20 @@
+package com.nebula.service.cache;
+
+import com.nebula.model.entity.SysUser;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 用户资料快照
+ * 不含密码等敏感字段，由 {@link UserProfileCache} 缓存，只读
+ */
+public record UserProfile(Long id, String username, String email, String nickname,
+                          String avatarName, String avatarUrl, Long avatarSize, String bio,
+                          String onlineStatus, Integer accountStatus, OffsetDateTime lastSeenAt) {
+
+    public static UserProfile of(SysUser sysUser) {
+        return new UserProfile(sysUser.getId(), sysUser.getUsername(), sysUser.getEmail(), sysUser.getNickname(),
+                sysUser.getAvatarName(), sysUser.getAvatarUrl(), sysUser.getAvatarSize(), sysUser.getBio(),
+                sysUser.getOnlineStatus(), sysUser.getAccountStatus(), sysUser.getLastSeenAt());
+    }
+}
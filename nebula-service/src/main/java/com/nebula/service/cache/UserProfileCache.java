@@ -0,0 +1,201 @@
+package com.nebula.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nebula.common.constant.RedisKey;
+import com.nebula.model.entity.SysUser;
+import com.nebula.service.mapper.SysUserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用户资料缓存
+ * 本地缓存 + Redis 两级缓存，按用户ID返回不可变的 {@link UserProfile}。
+ * 同一用户并发未命中时只有一个线程回源，其余线程等待其结果；不存在的用户短时间缓存空值，
+ * Redis 过期时间加入随机抖动，避免大量条目同时过期。用户变更事件在事务提交后失效两级缓存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProfileCache {
+
+    /**
+     * 本地缓存有效期（30秒），多实例部署时作为其他节点的失效兜底
+     */
+    private static final long LOCAL_TTL_MILLIS = 30 * 1000L;
+
+    /**
+     * 不存在用户的缓存有效期（秒）
+     */
+    private static final long MISSING_TTL_SECONDS = 60;
+
+    /**
+     * 本地缓存最大条目数，超出后整体清空
+     */
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    /**
+     * Redis 中表示用户不存在的占位值
+     */
+    private static final String MISSING = "";
+
+    /**
+     * 失效版本号分段数（2的幂），按用户ID取模
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final SysUserMapper sysUserMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ConcurrentHashMap<Long, Entry> local = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<UserProfile>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 按用户分段的失效版本号，回源期间该用户被失效过时不回填缓存，避免旧数据覆盖失效结果；
+     * 其他用户的失效不影响本用户回填
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 获取用户资料，用户不存在或已删除时返回 null
+     */
+    public UserProfile get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        Entry entry = local.get(userId);
+        if (entry != null && entry.expireAt() > System.currentTimeMillis()) {
+            return entry.profile();
+        }
+
+        CompletableFuture<UserProfile> future = new CompletableFuture<>();
+        CompletableFuture<UserProfile> existing = loading.putIfAbsent(userId, future);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            UserProfile profile = load(userId);
+            future.complete(profile);
+            return profile;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(userId, future);
+        }
+    }
+
+    /**
+     * 失效指定用户的资料缓存
+     */
+    public void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        local.remove(userId);
+        stringRedisTemplate.delete(RedisKey.User.userInfo(userId));
+    }
+
+    /**
+     * 批量失效
+     */
+    public void evictAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        for (Long userId : userIds) {
+            generations.incrementAndGet(stripe(userId));
+            local.remove(userId);
+        }
+        stringRedisTemplate.delete(userIds.stream().map(RedisKey.User::userInfo).toList());
+    }
+
+    /**
+     * 用户变更事件，事务提交后失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        evict(event.userId());
+        log.debug("用户资料缓存已失效 | userId={}", event.userId());
+    }
+
+    private UserProfile load(Long userId) {
+        int stripe = stripe(userId);
+        long startGeneration = generations.get(stripe);
+        String key = RedisKey.User.userInfo(userId);
+        String cached = null;
+        try {
+            cached = stringRedisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取用户资料缓存失败，回源数据库 | userId={}, error={}", userId, e.getMessage());
+        }
+        if (cached != null) {
+            UserProfile profile = MISSING.equals(cached) ? null : deserialize(cached);
+            if (profile != null || MISSING.equals(cached)) {
+                putLocal(userId, profile);
+                return profile;
+            }
+        }
+
+        SysUser sysUser = sysUserMapper.selectById(userId);
+        UserProfile profile = sysUser != null ? UserProfile.of(sysUser) : null;
+        if (generations.get(stripe) != startGeneration) {
+            return profile;
+        }
+        try {
+            if (profile != null) {
+                long ttl = RedisKey.User.INFO_TTL + ThreadLocalRandom.current().nextLong(RedisKey.User.INFO_TTL / 10 + 1);
+                stringRedisTemplate.opsForValue().set(key, MAPPER.writeValueAsString(profile), ttl, TimeUnit.SECONDS);
+            } else {
+                stringRedisTemplate.opsForValue().set(key, MISSING, MISSING_TTL_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            log.warn("写入用户资料缓存失败 | userId={}, error={}", userId, e.getMessage());
+        }
+        putLocal(userId, profile);
+        return profile;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    private UserProfile deserialize(String json) {
+        try {
+            return MAPPER.readValue(json, UserProfile.class);
+        } catch (JsonProcessingException e) {
+            log.warn("用户资料缓存格式错误，回源数据库 | error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putLocal(Long userId, UserProfile profile) {
+        if (local.size() >= LOCAL_MAX_SIZE) {
+            local.clear();
+        }
+        long ttl = profile != null ? LOCAL_TTL_MILLIS : Math.min(LOCAL_TTL_MILLIS, MISSING_TTL_SECONDS * 1000);
+        local.put(userId, new Entry(profile, System.currentTimeMillis() + ttl));
+    }
+
+    private record Entry(UserProfile profile, long expireAt) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.nebula.service.context;
+
+import com.nebula.common.constant.AdminConstants;
+import com.nebula.model.entity.system.SysRole;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 请求级授权上下文
+ * 同一请求内用户的角色只解析一次，供拦截器、PermissionService 和控制器复用
+ */
+@Getter
+public class AuthorizationContext {
+
+    private final Long userId;
+
+    /**
+     * 用户的启用角色
+     */
+    private final List<SysRole> roles;
+
+    private final boolean superAdmin;
+
+    public AuthorizationContext(Long userId, List<SysRole> roles) {
+        this.userId = userId;
+        this.roles = List.copyOf(roles);
+        this.superAdmin = AdminConstants.SUPER_ADMIN_USER_ID.equals(userId) ||
+                hasRole(AdminConstants.SUPER_ADMIN_ROLE_CODE);
+    }
+
+    public boolean hasRole(String roleCode) {
+        return roles.stream().anyMatch(r -> roleCode.equals(r.getRoleCode()));
+    }
+
+    /**
+     * 是否拥有全部数据权限
+     */
+    public boolean hasAllDataScope() {
+        return superAdmin || roles.stream()
+                .anyMatch(r -> AdminConstants.ALL_DATA_SCOPE.equals(r.getDataScope()));
+    }
+}
@@ -1,28 +1,44 @@
 package com.nebula.service.impl;
 
 
-import cn.dev33.satoken.stp.StpUtil;
 import cn.dev33.satoken.util.SaResult;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.nebula.common.constant.AdminConstants;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.common.exception.ErrorCode;
 import com.nebula.common.util.LogUtil;
+import com.nebula.config.security.BoundedPasswordEncoder;
+import com.nebula.config.security.LoginTokenIssuer;
+import com.nebula.config.util.ClientIpResolver;
 import com.nebula.model.dto.LoginDTO;
 import com.nebula.model.dto.RegisterDTO;
 import com.nebula.model.entity.SysUser;
 import com.nebula.model.entity.system.SysUserRole;
 import com.nebula.model.vo.LoginVO;
+import com.nebula.service.cache.AccountBloomFilter;
+import com.nebula.service.cache.AccountCache;
+import com.nebula.service.cache.AccountCredential;
+import com.nebula.service.cache.UserChangedEvent;
+import com.nebula.service.cache.UserProfile;
+import com.nebula.service.cache.UserProfileCache;
+import com.nebula.service.log.LoginEvent;
+import com.nebula.service.log.LoginEventPipeline;
 import com.nebula.service.mapper.SysUserMapper;
 import com.nebula.service.mapper.system.SysUserRoleMapper;
 import com.nebula.service.service.AuthService;
+import com.nebula.service.service.LoginAttemptService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -34,73 +50,132 @@ import java.util.Map;
 public class AuthServiceImpl implements AuthService {
 
     private final SysUserMapper sysUserMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final SysUserRoleMapper sysUserRoleMapper;
+    private final LoginAttemptService loginAttemptService;
+    private final AccountCache accountCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginEventPipeline loginEventPipeline;
+    private final AccountBloomFilter accountBloomFilter;
+    private final LoginTokenIssuer loginTokenIssuer;
+    private final UserProfileCache userProfileCache;
+    private final ClientIpResolver clientIpResolver;
 
+    /**
+     * 登录只包含凭据校验与会话创建，登录日志、最后登录时间等副作用交由 {@link LoginEventPipeline} 异步批量落库
+     */
     @Override
-    @Transactional
     public SaResult login(LoginDTO loginDTO) {
+        String account = loginDTO.getAccount() != null ? loginDTO.getAccount().trim() : "";
+        String ipAddress = getClientIpAddress();
+        String userAgent = getUserAgent();
+
+        // 失败次数过多时直接拒绝，不再查询数据库和校验密码
+        String attemptKey = normalizeAccount(account);
+        if (loginAttemptService.isLocked(attemptKey, ipAddress)) {
+            rejectLocked(account, ipAddress, userAgent);
+        }
+
         // 查找用户（通过用户名或邮箱）
-        SysUser sysUser = findUserByAccount(loginDTO.getAccount());
+        AccountCredential credential;
+        try {
+            credential = findUserByAccount(account);
+        } catch (BusinessException e) {
+            loginAttemptService.recordAttempt(attemptKey, ipAddress, false);
+            loginEventPipeline.submit(LoginEvent.failure(null, account, LoginEvent.TYPE_PASSWORD,
+                    LoginEvent.STATUS_FAILED, "用户不存在", ipAddress, userAgent));
+            throw e;
+        }
+
+        // 已存在的账号统一按用户名计数，用户名、邮箱及大小写、空白变体共享同一失败窗口
+        if (!credential.getUsername().equals(attemptKey)) {
+            attemptKey = credential.getUsername();
+            if (loginAttemptService.isLocked(attemptKey, ipAddress)) {
+                rejectLocked(account, ipAddress, userAgent);
+            }
+        }
 
         // 验证密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), sysUser.getPassword())) {
-            LogUtil.Auth.loginFailed(log, loginDTO.getAccount(), "密码错误");
+        if (!passwordEncoder.matches(loginDTO.getPassword(), credential.getPassword())) {
+            loginAttemptService.recordAttempt(attemptKey, ipAddress, false);
+            loginEventPipeline.submit(LoginEvent.failure(credential.getUserId(), credential.getUsername(),
+                    LoginEvent.TYPE_PASSWORD, LoginEvent.STATUS_FAILED, "密码错误", ipAddress, userAgent));
+            LogUtil.Auth.loginFailed(log, account, "密码错误");
             SaResult.error("密码错误");
             throw new BusinessException(ErrorCode.PASSWORD_ERROR);
         }
 
         // 检查用户状态
-        if (sysUser.getAccountStatus() == 0) {
-            LogUtil.Auth.loginFailed(log, loginDTO.getAccount(), "账号已被禁用");
+        if (credential.getAccountStatus() == 0) {
+            loginEventPipeline.submit(LoginEvent.failure(credential.getUserId(), credential.getUsername(),
+                    LoginEvent.TYPE_PASSWORD, LoginEvent.STATUS_FAILED, "账号已被禁用", ipAddress, userAgent));
+            LogUtil.Auth.loginFailed(log, account, "账号已被禁用");
             SaResult.error("账号已被禁用");
             throw new BusinessException(ErrorCode.USER_DISABLED);
         }
 
-        // 使用 Sa-Token 进行登录，服务端会写入会话
-        StpUtil.login(sysUser.getId());
+        // 签发令牌：会话模式写入 Sa-Token 会话，无状态模式签发 JWT
+        LoginTokenIssuer.IssuedToken issued = loginTokenIssuer.issue(credential.getUserId());
+        String token = issued.token();
+        loginAttemptService.recordAttempt(attemptKey, ipAddress, true);
+        loginEventPipeline.submit(LoginEvent.success(credential.getUserId(), credential.getUsername(),
+                LoginEvent.TYPE_PASSWORD, ipAddress, userAgent, token));
+        upgradePasswordHash(credential.getUserId(), loginDTO.getPassword(), credential.getPassword());
+
+        // 凭据校验通过后从用户资料缓存读取返回信息
+        UserProfile profile = userProfileCache.get(credential.getUserId());
+        if (profile == null) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
 
         // 返回兼容前端结构，便于沿用既有解析逻辑
-        String token = StpUtil.getTokenValue();
         Map<String, Object> payload = new HashMap<>();
         payload.put("token", token);
-        payload.put("expiresIn", 0);
-        payload.put("userInfo", buildUserInfo(sysUser));
+        payload.put("refreshToken", issued.refreshToken());
+        payload.put("expiresIn", issued.expiresIn());
+        payload.put("userInfo", buildUserInfo(profile));
 
-        LogUtil.Auth.loginSuccess(log, sysUser.getId(), sysUser.getEmail());
+        LogUtil.Auth.loginSuccess(log, credential.getUserId(), credential.getEmail());
 
         return SaResult.data(payload);
     }
 
+    /**
+     * 布隆过滤器判定用户名和邮箱一定不存在时跳过唯一性查询，直接插入并由唯一约束兜底
+     */
     @Override
     @Transactional
     public LoginVO register(RegisterDTO registerDTO) {
         // 检查邮箱是否已存在
-        if (isEmailExists(registerDTO.getEmail())) {
+        if (accountBloomFilter.mightContainEmail(registerDTO.getEmail()) && isEmailExists(registerDTO.getEmail())) {
             LogUtil.Auth.registerFailed(log, registerDTO.getEmail(), "邮箱已被注册");
             throw new BusinessException(ErrorCode.EMAIL_EXISTS);
         }
 
         // 检查用户名是否已存在
-        if (isUsernameExists(registerDTO.getUsername())) {
+        if (accountBloomFilter.mightContainUsername(registerDTO.getUsername()) && isUsernameExists(registerDTO.getUsername())) {
             LogUtil.Auth.registerFailed(log, registerDTO.getEmail(), "用户名已被占用");
             throw new BusinessException(ErrorCode.USERNAME_EXISTS);
         }
 
-        // 创建系统用户
+        // 创建系统用户，并发注册或过滤器漏判时由唯一约束拒绝
         SysUser sysUser = createSysUser(registerDTO);
-        sysUserMapper.insert(sysUser);
+        if (sysUserMapper.insertIfAbsent(sysUser) == 0) {
+            boolean emailExists = isEmailExists(registerDTO.getEmail());
+            LogUtil.Auth.registerFailed(log, registerDTO.getEmail(), emailExists ? "邮箱已被注册" : "用户名已被占用");
+            throw new BusinessException(emailExists ? ErrorCode.EMAIL_EXISTS : ErrorCode.USERNAME_EXISTS);
+        }
         LogUtil.Database.insert(log, "sys_user", sysUser.getId());
+        accountBloomFilter.add(sysUser.getUsername(), sysUser.getEmail());
 
         // 分配默认普通用户角色
         assignDefaultRoleToUser(sysUser.getId());
 
-        // 注册后直接创建 Sa-Token 会话
-        StpUtil.login(sysUser.getId());
-        String token = StpUtil.getTokenValue();
+        // 注册后直接签发令牌
+        LoginTokenIssuer.IssuedToken issued = loginTokenIssuer.issue(sysUser.getId());
 
         // 构建返回结果（兼容前端字段）
-        LoginVO loginVO = buildLoginVO(sysUser, token, "");
+        LoginVO loginVO = buildLoginVO(sysUser, issued.token(), issued.refreshToken());
 
         LogUtil.Auth.registerSuccess(log, sysUser.getId(), sysUser.getEmail(), sysUser.getUsername());
         return loginVO;
@@ -123,43 +198,105 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ErrorCode.UNAUTHORIZED);
         }
 
-        // 清理 Sa-Token 会话
-        StpUtil.logout(userId);
+        // 清理 Sa-Token 会话，无状态模式下吊销该用户已签发的令牌
+        loginTokenIssuer.revokeUser(userId);
         LogUtil.Auth.logout(log, userId);
     }
 
+    @Override
+    public Map<String, Object> refresh(String refreshToken) {
+        LoginTokenIssuer.IssuedToken issued = loginTokenIssuer.refresh(refreshToken);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("token", issued.token());
+        payload.put("refreshToken", issued.refreshToken());
+        payload.put("expiresIn", issued.expiresIn());
+        return payload;
+    }
+
     @Override
     public LoginVO.UserInfo getUserInfo(Long userId) {
         if (userId == null) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED);
         }
 
-        // 查询用户信息
-        SysUser sysUser = sysUserMapper.selectById(userId);
-        if (sysUser == null || sysUser.getDeleted() == 1) {
+        // 查询用户信息（已删除的用户不会被查出）
+        UserProfile profile = userProfileCache.get(userId);
+        if (profile == null) {
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
 
         LogUtil.Auth.getUserInfo(log, userId);
-        return buildUserInfo(sysUser);
+        return buildUserInfo(profile);
     }
 
     // ==================== 私有方法 ====================
 
     /**
-     * 根据用户名或邮箱查找用户
+     * 旧哈希强度低于当前配置时，在后台用本次登录的明文重新哈希；
+     * 仅当密码未被并发修改时写回，线程池繁忙则留待下次登录
      */
-    private SysUser findUserByAccount(String account) {
-        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
-        wrapper.and(w -> w.eq(SysUser::getEmail, account).or().eq(SysUser::getUsername, account));
-        SysUser sysUser = sysUserMapper.selectOne(wrapper);
+    private void upgradePasswordHash(Long userId, String rawPassword, String oldHash) {
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
+        }
+        passwordEncoder.encodeAsync(rawPassword).thenAccept(newHash -> {
+            int rows = sysUserMapper.update(null, new LambdaUpdateWrapper<SysUser>()
+                    .set(SysUser::getPassword, newHash)
+                    .eq(SysUser::getId, userId)
+                    .eq(SysUser::getPassword, oldHash));
+            if (rows > 0) {
+                eventPublisher.publishEvent(new UserChangedEvent(userId));
+                log.info("密码哈希已升级: userId={}", userId);
+            }
+        }).exceptionally(e -> {
+            log.debug("密码哈希升级跳过: userId={}, error={}", userId, e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * 规范化登录标识：去除首尾空白，邮箱不区分大小写
+     */
+    private static String normalizeAccount(String account) {
+        return account.indexOf('@') >= 0 ? account.toLowerCase(Locale.ROOT) : account;
+    }
 
-        if (sysUser == null) {
+    private void rejectLocked(String account, String ipAddress, String userAgent) {
+        LogUtil.Auth.loginFailed(log, account, "登录已被锁定");
+        loginEventPipeline.submit(LoginEvent.failure(null, account, LoginEvent.TYPE_PASSWORD,
+                LoginEvent.STATUS_LOCKED, "登录已被锁定", ipAddress, userAgent));
+        throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
+    }
+
+    /**
+     * 根据用户名或邮箱查找登录凭据
+     */
+    private AccountCredential findUserByAccount(String account) {
+        AccountCredential credential = accountCache.get(account);
+
+        if (credential == null) {
             LogUtil.Auth.loginFailed(log, account, "用户不存在");
             throw new BusinessException(ErrorCode.USER_NOT_FOUND);
         }
 
-        return sysUser;
+        return credential;
+    }
+
+    /**
+     * 获取客户端IP地址，非 Web 请求时返回 unknown
+     */
+    private String getClientIpAddress() {
+        return clientIpResolver.resolve(currentRequest());
+    }
+
+    private String getUserAgent() {
+        HttpServletRequest request = currentRequest();
+        return request != null ? request.getHeader("User-Agent") : null;
+    }
+
+    private HttpServletRequest currentRequest() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getRequest() : null;
     }
 
     /**
@@ -207,16 +344,20 @@ public class AuthServiceImpl implements AuthService {
     /**
      * 构建用户信息
      */
-    private LoginVO.UserInfo buildUserInfo(SysUser sysUser) {
+    private LoginVO.UserInfo buildUserInfo(UserProfile profile) {
         LoginVO.UserInfo userInfo = new LoginVO.UserInfo();
-        userInfo.setId(sysUser.getId());
-        userInfo.setUsername(sysUser.getUsername());
-        userInfo.setEmail(sysUser.getEmail());
-        userInfo.setNickname(sysUser.getNickname());
-        userInfo.setAvatarName(sysUser.getAvatarName());
-        userInfo.setAvatarSize(sysUser.getAvatarSize());
-        userInfo.setAvatarUrl(sysUser.getAvatarUrl());
+        userInfo.setId(profile.id());
+        userInfo.setUsername(profile.username());
+        userInfo.setEmail(profile.email());
+        userInfo.setNickname(profile.nickname());
+        userInfo.setAvatarName(profile.avatarName());
+        userInfo.setAvatarSize(profile.avatarSize());
+        userInfo.setAvatarUrl(profile.avatarUrl());
         return userInfo;
     }
 
+    private LoginVO.UserInfo buildUserInfo(SysUser sysUser) {
+        return buildUserInfo(UserProfile.of(sysUser));
+    }
+
 }
@@ -3,25 +3,30 @@ package com.nebula.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.config.result.ResultCode;
+import com.nebula.config.security.SignedTokenService;
+import com.nebula.config.security.SignedTokenService.SignedToken;
 import com.nebula.model.dto.EmailVerificationDTO;
 import com.nebula.model.dto.VerifyEmailDTO;
 import com.nebula.model.entity.EmailVerification;
 import com.nebula.model.entity.SysUser;
+import com.nebula.service.cache.AccountBloomFilter;
+import com.nebula.service.log.AuditExecutor;
 import com.nebula.service.mapper.EmailVerificationMapper;
 import com.nebula.service.mapper.SysUserMapper;
 import com.nebula.service.service.EmailService;
 import com.nebula.service.service.EmailVerificationService;
+import com.nebula.service.service.QuotaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 /**
  * 邮箱验证服务实现
+ * 验证令牌为自校验的签名令牌，无效链接不访问数据库；待验证记录异步写入，验证结果在请求内同步落库
  */
 @Slf4j
 @Service
@@ -30,7 +35,19 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
 
     private final EmailVerificationMapper verificationMapper;
     private final SysUserMapper userMapper;
+    private final AccountBloomFilter accountBloomFilter;
     private final EmailService emailService;
+    private final SignedTokenService signedTokenService;
+    private final AuditExecutor auditExecutor;
+    private final QuotaService quotaService;
+
+    private static final String TOKEN_PURPOSE_PREFIX = "email_verify:";
+    private static final String QUOTA_SCOPE = "email_verify";
+
+    /**
+     * 允许的验证类型，与 email_verifications.type 的约束一致
+     */
+    private static final Set<String> ALLOWED_TYPES = Set.of("registration", "email_change", "password_reset");
 
     // 令牌有效期：24小时
     private static final int TOKEN_EXPIRY_HOURS = 24;
@@ -38,15 +55,22 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     private static final int MAX_DAILY_SENDS = 5;
 
     @Override
-    @Transactional
     public void sendVerificationEmail(EmailVerificationDTO verificationDTO) {
         String email = verificationDTO.getEmail();
         String type = verificationDTO.getType() != null ? verificationDTO.getType() : "registration";
 
-        // 1. 查找用户
-        LambdaQueryWrapper<SysUser> userWrapper = new LambdaQueryWrapper<>();
-        userWrapper.eq(SysUser::getEmail, email);
-        SysUser user = userMapper.selectOne(userWrapper);
+        // 0. 校验验证类型，类型会参与令牌用途与 Redis Key 的拼接
+        if (!ALLOWED_TYPES.contains(type)) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "不支持的验证类型");
+        }
+
+        // 1. 查找用户，本地与 Redis 布隆过滤器均判定邮箱不存在时不再查库
+        SysUser user = null;
+        if (accountBloomFilter.mightContainEmailStrict(email)) {
+            LambdaQueryWrapper<SysUser> userWrapper = new LambdaQueryWrapper<>();
+            userWrapper.eq(SysUser::getEmail, email);
+            user = userMapper.selectOne(userWrapper);
+        }
 
         if (user == null) {
             // 为了安全，不暴露邮箱是否存在
@@ -54,26 +78,17 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
             return;
         }
 
-        // 2. 检查当日发送次数
-        OffsetDateTime todayStart = OffsetDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LambdaQueryWrapper<EmailVerification> countWrapper = new LambdaQueryWrapper<>();
-        countWrapper.eq(EmailVerification::getUserId, user.getId())
-                .eq(EmailVerification::getType, type)
-                .ge(EmailVerification::getCreateTime, todayStart);
-        long todayCount = verificationMapper.selectCount(countWrapper);
-
-        if (todayCount >= MAX_DAILY_SENDS) {
+        // 2. 检查当日发送次数，按用户计数，各验证类型共用同一配额
+        if (!quotaService.tryAcquire(QUOTA_SCOPE, String.valueOf(user.getId()), MAX_DAILY_SENDS)) {
             throw new BusinessException(ResultCode.ERROR,
                     "今日验证邮件发送次数已达上限，请明天再试");
         }
 
-        // 3. 使之前的验证记录过期
-        verificationMapper.expirePendingByUserAndType(user.getId(), type);
-
-        // 4. 生成新令牌
-        String token = UUID.randomUUID().toString();
+        // 3. 签发签名令牌，该用户同类型之前的令牌随即失效
+        String token = signedTokenService.issue(user.getId(), TOKEN_PURPOSE_PREFIX + type,
+                Duration.ofHours(TOKEN_EXPIRY_HOURS));
 
-        // 5. 保存验证记录
+        // 4. 异步写入审计记录
         EmailVerification verification = new EmailVerification();
         verification.setUserId(user.getId());
         verification.setEmail(email);
@@ -85,73 +100,66 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
         verification.setUpdateTime(OffsetDateTime.now());
         verification.setDeleted(0);
 
-        verificationMapper.insert(verification);
-
-        // 6. 发送邮件
-        String subject = switch (type) {
-            case "registration" -> "【NebulaHub】邮箱注册验证";
-            case "email_change" -> "【NebulaHub】邮箱修改验证";
-            case "password_reset" -> "【NebulaHub】密码重置验证";
-            default -> "【NebulaHub】邮箱验证";
-        };
+        Long userId = user.getId();
+        auditExecutor.execute("email_verifications", () -> {
+            verificationMapper.expirePendingByUserAndType(userId, type);
+            verificationMapper.insert(verification);
+        });
 
-        emailService.sendVerificationEmail(email, subject, token, type);
+        // 5. 发送邮件，主题由邮件模板按验证类型生成
+        emailService.sendVerificationEmail(email, null, token, type);
 
         log.info("验证邮件已发送: userId={}, email={}, type={}", user.getId(), email, type);
     }
 
     @Override
-    @Transactional
     public boolean verifyEmail(VerifyEmailDTO verifyDTO) {
         String token = verifyDTO.getToken();
 
-        Optional<EmailVerification> verificationOpt = verificationMapper.findByToken(token);
-
-        if (verificationOpt.isEmpty()) {
+        // 校验令牌签名与有效期，无效链接不访问数据库
+        SignedToken signedToken = signedTokenService.parse(token);
+        if (signedToken == null || !signedToken.purpose().startsWith(TOKEN_PURPOSE_PREFIX)) {
             throw new BusinessException(ResultCode.PARAM_ERROR, "无效的验证链接");
         }
-
-        EmailVerification verification = verificationOpt.get();
-
-        // 检查状态
-        if (!"pending".equals(verification.getStatus())) {
-            String statusText = switch (verification.getStatus()) {
-                case "verified" -> "已验证";
-                case "expired" -> "已过期";
-                default -> "无效";
-            };
-            throw new BusinessException(ResultCode.ERROR, "该验证链接已" + statusText);
+        if (signedToken.isExpired()) {
+            throw new BusinessException(ResultCode.ERROR, "验证链接已过期，请重新申请");
         }
 
-        // 检查是否过期
-        if (verification.getExpiresAt().isBefore(OffsetDateTime.now())) {
-            // 更新状态为过期
-            verification.setStatus("expired");
-            verification.setUpdateTime(OffsetDateTime.now());
-            verificationMapper.updateById(verification);
-            throw new BusinessException(ResultCode.ERROR, "验证链接已过期，请重新申请");
+        // 原子消费令牌，已验证或已被新令牌取代时失败
+        if (!signedTokenService.consume(signedToken)) {
+            throw new BusinessException(ResultCode.ERROR, "该验证链接已失效");
         }
 
-        // 更新验证状态
-        verification.setStatus("verified");
-        verification.setVerifiedAt(OffsetDateTime.now());
-        verification.setUpdateTime(OffsetDateTime.now());
-        verificationMapper.updateById(verification);
-
-        // 如果是注册验证，更新用户邮箱验证状态
-        if ("registration".equals(verification.getType())) {
-            SysUser user = userMapper.selectById(verification.getUserId());
-            if (user != null) {
-                // 可以添加邮箱验证状态的字段
-                // user.setEmailVerified(true);
-                // userMapper.updateById(user);
-            }
+        // 同步记录验证结果，isEmailVerified 依赖该记录；异步写入的待验证记录尚未落库时直接插入已验证记录
+        String type = signedToken.purpose().substring(TOKEN_PURPOSE_PREFIX.length());
+        if (verificationMapper.markVerifiedByToken(token) == 0) {
+            insertVerified(signedToken.userId(), type, token);
         }
 
-        log.info("邮箱验证成功: userId={}, email={}", verification.getUserId(), verification.getEmail());
+        log.info("邮箱验证成功: userId={}, type={}", signedToken.userId(), type);
         return true;
     }
 
+    private void insertVerified(Long userId, String type, String token) {
+        SysUser user = userMapper.selectById(userId);
+        if (user == null) {
+            throw new BusinessException(ResultCode.ERROR, "该验证链接已失效");
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        EmailVerification verification = new EmailVerification();
+        verification.setUserId(userId);
+        verification.setEmail(user.getEmail());
+        verification.setToken(token);
+        verification.setType(type);
+        verification.setStatus("verified");
+        verification.setVerifiedAt(now);
+        verification.setExpiresAt(now);
+        verification.setCreateTime(now);
+        verification.setUpdateTime(now);
+        verification.setDeleted(0);
+        verificationMapper.insert(verification);
+    }
+
     @Override
     public boolean isEmailVerified(Long userId) {
         LambdaQueryWrapper<EmailVerification> wrapper = new LambdaQueryWrapper<>();
@@ -163,7 +171,6 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
     }
 
     @Override
-    @Transactional
     public void resendVerificationEmail(String email) {
         EmailVerificationDTO dto = new EmailVerificationDTO();
         dto.setEmail(email);
@@ -1,18 +1,33 @@
 package com.nebula.service.impl;
 
+import com.nebula.common.constant.RedisKey;
+import com.nebula.config.util.ClientIpResolver;
 import com.nebula.model.entity.LoginAttempt;
 import com.nebula.service.mapper.LoginAttemptMapper;
 import com.nebula.service.service.LoginAttemptService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 登录尝试服务实现
+ * 失败计数与锁定状态保存在 Redis，按用户名和IP分别维护滑动窗口，由 Lua 脚本原子判定；
+ * 内网、代理或无法识别的IP可能被大量客户端共享，不做IP维度的计数与锁定，避免一人触发全站锁定。
+ * login_attempts 表仅作为异步写入的审计记录
  */
 @Slf4j
 @Service
@@ -20,109 +35,134 @@ import java.util.Optional;
 public class LoginAttemptServiceImpl implements LoginAttemptService {
 
     private final LoginAttemptMapper loginAttemptMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ClientIpResolver clientIpResolver;
 
     // 配置参数
     private static final int MAX_ATTEMPTS = 5;
+    private static final int IP_MAX_ATTEMPTS = 20;
     private static final int LOCK_DURATION_MINUTES = 30;
     private static final int ATTEMPT_WINDOW_MINUTES = 5;
 
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(ATTEMPT_WINDOW_MINUTES);
+    private static final long LOCK_MILLIS = TimeUnit.MINUTES.toMillis(LOCK_DURATION_MINUTES);
+
+    /**
+     * 记录一次失败：清理窗口外的记录后写入本次尝试，达到阈值时设置锁定标记并清空窗口
+     * KEYS: 用户窗口、IP窗口、用户锁、IP锁；ARGV: 当前时间、窗口、用户阈值、IP阈值、锁定时长、成员、计数维度数
+     * 计数维度数为 1 时只统计用户；返回各维度窗口内的失败次数
+     */
+    private static final RedisScript<List> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local lockMillis = tonumber(ARGV[5])
+            local counts = {}
+            for i = 1, tonumber(ARGV[7]) do
+                local key = KEYS[i]
+                redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+                redis.call('ZADD', key, now, ARGV[6])
+                redis.call('PEXPIRE', key, window)
+                local count = redis.call('ZCARD', key)
+                if count >= tonumber(ARGV[2 + i]) then
+                    redis.call('SET', KEYS[i + 2], now + lockMillis, 'PX', lockMillis)
+                    redis.call('DEL', key)
+                end
+                counts[i] = count
+            end
+            return counts
+            """, List.class);
+
+    /**
+     * 统计用户窗口内的失败次数，已锁定时返回 -1
+     * KEYS: 用户窗口、用户锁；ARGV: 当前时间、窗口
+     */
+    private static final RedisScript<Long> COUNT_FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return -1
+            end
+            return redis.call('ZCOUNT', KEYS[1], tonumber(ARGV[1]) - tonumber(ARGV[2]), '+inf')
+            """, Long.class);
+
+    /**
+     * 审计记录单线程顺序写入，队列满时丢弃最旧的记录，不影响登录请求
+     */
+    private final ExecutorService auditExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1024), runnable -> {
+        Thread thread = new Thread(runnable, "login-attempt-audit");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardOldestPolicy());
+
     @Override
     public void recordAttempt(String username, String ipAddress, boolean success) {
-        Optional<LoginAttempt> attemptOpt = loginAttemptMapper.findByUsernameAndIp(username, ipAddress);
-
-        if (attemptOpt.isPresent()) {
-            LoginAttempt attempt = attemptOpt.get();
-
+        try {
             if (success) {
-                // 登录成功，清除失败记录
-                loginAttemptMapper.clearLock(attempt.getId());
+                // 登录成功，清除该用户的失败记录
+                stringRedisTemplate.delete(List.of(userWindowKey(username), userLockKey(username)));
                 log.debug("登录成功，清除失败记录: username={}, ip={}", username, ipAddress);
             } else {
-                // 登录失败，增加计数
-                loginAttemptMapper.incrementAttemptCount(attempt.getId());
-
-                // 检查是否需要锁定
-                if (attempt.getAttemptCount() + 1 >= MAX_ATTEMPTS) {
-                    OffsetDateTime lockedUntil = OffsetDateTime.now().plusMinutes(LOCK_DURATION_MINUTES);
-                    loginAttemptMapper.lockAccount(attempt.getId(), lockedUntil);
-                    log.warn("账户已锁定: username={}, ip={}, lockedUntil={}", username, ipAddress, lockedUntil);
+                long now = System.currentTimeMillis();
+                boolean countIp = clientIpResolver.isPublicClient(ipAddress);
+                List<?> counts = stringRedisTemplate.execute(RECORD_FAILURE_SCRIPT,
+                        List.of(userWindowKey(username), ipWindowKey(ipAddress), userLockKey(username), ipLockKey(ipAddress)),
+                        String.valueOf(now), String.valueOf(WINDOW_MILLIS),
+                        String.valueOf(MAX_ATTEMPTS), String.valueOf(IP_MAX_ATTEMPTS),
+                        String.valueOf(LOCK_MILLIS), now + ":" + UUID.randomUUID(), countIp ? "2" : "1");
+                if (counts != null && !counts.isEmpty()) {
+                    if (((Number) counts.get(0)).intValue() >= MAX_ATTEMPTS) {
+                        log.warn("账户已锁定: username={}, ip={}, minutes={}", username, ipAddress, LOCK_DURATION_MINUTES);
+                    }
+                    if (counts.size() > 1 && ((Number) counts.get(1)).intValue() >= IP_MAX_ATTEMPTS) {
+                        log.warn("IP已锁定: ip={}, minutes={}", ipAddress, LOCK_DURATION_MINUTES);
+                    }
                 }
             }
-        } else {
-            // 新建记录
-            if (!success) {
-                LoginAttempt attempt = new LoginAttempt();
-                attempt.setUsername(username);
-                attempt.setIpAddress(ipAddress);
-                attempt.setAttemptCount(1);
-                attempt.setLastAttemptAt(OffsetDateTime.now());
-                attempt.setCreateTime(OffsetDateTime.now());
-                attempt.setUpdateTime(OffsetDateTime.now());
-                attempt.setDeleted(0);
-
-                loginAttemptMapper.insert(attempt);
-            }
+        } catch (Exception e) {
+            log.warn("登录尝试计数失败: username={}, ip={}, error={}", username, ipAddress, e.getMessage());
         }
+        audit(username, ipAddress, success);
     }
 
     @Override
     public boolean isLocked(String username, String ipAddress) {
-        // 检查IP是否被锁定
-        Optional<LoginAttempt> ipLockOpt = loginAttemptMapper.findActiveLockByIp(ipAddress);
-        if (ipLockOpt.isPresent()) {
-            LoginAttempt lock = ipLockOpt.get();
-            if (lock.getLockedUntil().isAfter(OffsetDateTime.now())) {
-                log.warn("IP已被锁定: ip={}, lockedUntil={}", ipAddress, lock.getLockedUntil());
-                return true;
-            }
-        }
-
-        // 检查用户名是否被锁定
-        Optional<LoginAttempt> attemptOpt = loginAttemptMapper.findByUsernameAndIp(username, ipAddress);
-        if (attemptOpt.isPresent()) {
-            LoginAttempt attempt = attemptOpt.get();
-            if (attempt.getLockedUntil() != null && attempt.getLockedUntil().isAfter(OffsetDateTime.now())) {
-                log.warn("账户已被锁定: username={}, lockedUntil={}", username, attempt.getLockedUntil());
+        try {
+            List<String> lockKeys = clientIpResolver.isPublicClient(ipAddress)
+                    ? List.of(ipLockKey(ipAddress), userLockKey(username))
+                    : List.of(userLockKey(username));
+            Long locked = stringRedisTemplate.countExistingKeys(lockKeys);
+            if (locked != null && locked > 0) {
+                log.warn("登录已被锁定: username={}, ip={}", username, ipAddress);
                 return true;
             }
-
-            // 检查尝试次数
-            if (attempt.getAttemptCount() >= MAX_ATTEMPTS) {
-                // 检查是否在时间窗口内
-                if (attempt.getLastAttemptAt() != null &&
-                        attempt.getLastAttemptAt().isAfter(OffsetDateTime.now().minusMinutes(ATTEMPT_WINDOW_MINUTES))) {
-                    // 锁定账户
-                    OffsetDateTime lockedUntil = OffsetDateTime.now().plusMinutes(LOCK_DURATION_MINUTES);
-                    loginAttemptMapper.lockAccount(attempt.getId(), lockedUntil);
-                    log.warn("账户已锁定: username={}, lockedUntil={}", username, lockedUntil);
-                    return true;
-                }
-            }
+        } catch (Exception e) {
+            log.warn("登录锁定状态查询失败: username={}, ip={}, error={}", username, ipAddress, e.getMessage());
         }
-
         return false;
     }
 
     @Override
     public int getRemainingAttempts(String username, String ipAddress) {
-        Optional<LoginAttempt> attemptOpt = loginAttemptMapper.findByUsernameAndIp(username, ipAddress);
-        if (attemptOpt.isPresent()) {
-            LoginAttempt attempt = attemptOpt.get();
-            if (attempt.getAttemptCount() >= MAX_ATTEMPTS) {
-                return 0;
+        try {
+            Long count = stringRedisTemplate.execute(COUNT_FAILURE_SCRIPT,
+                    List.of(userWindowKey(username), userLockKey(username)),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(WINDOW_MILLIS));
+            if (count == null) {
+                return MAX_ATTEMPTS;
             }
-            return MAX_ATTEMPTS - attempt.getAttemptCount();
+            return count < 0 ? 0 : (int) Math.max(0, MAX_ATTEMPTS - count);
+        } catch (Exception e) {
+            log.warn("剩余尝试次数查询失败: username={}, error={}", username, e.getMessage());
+            return MAX_ATTEMPTS;
         }
-        return MAX_ATTEMPTS;
     }
 
     @Override
     public void unlockAccount(String username, String ipAddress) {
-        Optional<LoginAttempt> attemptOpt = loginAttemptMapper.findByUsernameAndIp(username, ipAddress);
-        if (attemptOpt.isPresent()) {
-            loginAttemptMapper.clearLock(attemptOpt.get().getId());
-            log.info("账户已解锁: username={}, ip={}", username, ipAddress);
-        }
+        stringRedisTemplate.delete(List.of(userWindowKey(username), userLockKey(username),
+                ipWindowKey(ipAddress), ipLockKey(ipAddress)));
+        auditExecutor.execute(() -> loginAttemptMapper.findByUsernameAndIp(username, ipAddress)
+                .ifPresent(attempt -> loginAttemptMapper.clearLock(attempt.getId())));
+        log.info("账户已解锁: username={}, ip={}", username, ipAddress);
     }
 
     @Override
@@ -132,4 +172,64 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
         int count = loginAttemptMapper.cleanupExpiredLocks(beforeTime);
         log.info("清理过期锁定记录: {} 条", count);
     }
+
+    @PreDestroy
+    public void shutdown() {
+        auditExecutor.shutdown();
+    }
+
+    /**
+     * 异步写入审计记录，锁定判定以 Redis 为准
+     */
+    private void audit(String username, String ipAddress, boolean success) {
+        OffsetDateTime attemptAt = OffsetDateTime.now();
+        auditExecutor.execute(() -> {
+            try {
+                writeAudit(username, ipAddress, success, attemptAt);
+            } catch (Exception e) {
+                log.warn("登录尝试审计写入失败: username={}, ip={}, error={}", username, ipAddress, e.getMessage());
+            }
+        });
+    }
+
+    private void writeAudit(String username, String ipAddress, boolean success, OffsetDateTime attemptAt) {
+        Optional<LoginAttempt> attemptOpt = loginAttemptMapper.findByUsernameAndIp(username, ipAddress);
+        if (attemptOpt.isPresent()) {
+            LoginAttempt attempt = attemptOpt.get();
+            if (success) {
+                loginAttemptMapper.clearLock(attempt.getId());
+                return;
+            }
+            loginAttemptMapper.incrementAttemptCount(attempt.getId());
+            if (attempt.getAttemptCount() + 1 >= MAX_ATTEMPTS) {
+                loginAttemptMapper.lockAccount(attempt.getId(), attemptAt.plusMinutes(LOCK_DURATION_MINUTES));
+            }
+        } else if (!success) {
+            LoginAttempt attempt = new LoginAttempt();
+            attempt.setUsername(username);
+            attempt.setIpAddress(ipAddress);
+            attempt.setAttemptCount(1);
+            attempt.setLastAttemptAt(attemptAt);
+            attempt.setCreateTime(attemptAt);
+            attempt.setUpdateTime(attemptAt);
+            attempt.setDeleted(0);
+            loginAttemptMapper.insert(attempt);
+        }
+    }
+
+    private static String userWindowKey(String username) {
+        return RedisKey.RateLimit.login("user:" + username);
+    }
+
+    private static String ipWindowKey(String ipAddress) {
+        return RedisKey.RateLimit.login("ip:" + ipAddress);
+    }
+
+    private static String userLockKey(String username) {
+        return RedisKey.RateLimit.loginLock("user:" + username);
+    }
+
+    private static String ipLockKey(String ipAddress) {
+        return RedisKey.RateLimit.loginLock("ip:" + ipAddress);
+    }
 }
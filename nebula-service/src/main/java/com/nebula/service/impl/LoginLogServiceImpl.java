@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.nebula.model.entity.LoginLog;
+import com.nebula.service.log.LoginEventPipeline;
 import com.nebula.service.mapper.LoginLogMapper;
 import com.nebula.service.service.LoginLogService;
 import lombok.RequiredArgsConstructor;
@@ -84,7 +85,7 @@ public class LoginLogServiceImpl implements LoginLogService {
     public void recordLogout(Long userId, String tokenId) {
         LambdaQueryWrapper<LoginLog> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(LoginLog::getUserId, userId)
-                .eq(LoginLog::getTokenId, tokenId)
+                .eq(LoginLog::getTokenId, LoginEventPipeline.hashToken(tokenId))
                 .isNull(LoginLog::getLogoutAt)
                 .orderByDesc(LoginLog::getLoginAt)
                 .last("LIMIT 1");
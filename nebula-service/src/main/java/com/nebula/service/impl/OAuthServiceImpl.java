@@ -1,13 +1,12 @@
 package com.nebula.service.impl;
 
-import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.nebula.common.constant.AdminConstants;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.common.exception.ErrorCode;
-import com.nebula.config.config.MinioConfig;
 import com.nebula.config.properties.GitHubOAuthProperties;
-import com.nebula.config.util.MinioUtil;
+import com.nebula.config.security.LoginTokenIssuer;
+import com.nebula.config.util.ClientIpResolver;
 import com.nebula.model.dto.GitHubOAuthConfirmDTO;
 import com.nebula.model.dto.GitHubOAuthDTO;
 import com.nebula.model.entity.SysUser;
@@ -15,49 +14,61 @@ import com.nebula.model.entity.system.SysUserRole;
 import com.nebula.model.vo.GitHubOAuthConfirmVO;
 import com.nebula.model.vo.GitHubUserInfo;
 import com.nebula.model.vo.LoginVO;
+import com.nebula.service.avatar.GitHubAvatarMirror;
+import com.nebula.service.cache.AccountBloomFilter;
+import com.nebula.service.cache.UserChangedEvent;
+import com.nebula.service.log.LoginEvent;
+import com.nebula.service.log.LoginEventPipeline;
 import com.nebula.service.mapper.SysUserMapper;
+import com.nebula.service.oauth.GitHubOAuthState;
+import com.nebula.service.oauth.GitHubOAuthStateStore;
 import com.nebula.service.mapper.system.SysUserRoleMapper;
 import com.nebula.service.service.OAuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 /**
  * OAuth服务实现
+ * 调用 GitHub、Redis 与签发令牌均在事务之外进行，只有用户的查找与创建在短事务中完成，
+ * GitHub 响应缓慢时不会长时间占用数据库连接
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OAuthServiceImpl implements OAuthService {
 
-    private static final String GITHUB_OAUTH_TEMP_PREFIX = "github:oauth:temp:";
     private static final long TEMP_TOKEN_EXPIRE_SECONDS = 600; // 10分钟过期
 
     private final SysUserMapper sysUserMapper;
     private final PasswordEncoder passwordEncoder;
     private final GitHubOAuthProperties gitHubOAuthProperties;
     private final RestTemplate restTemplate;
-    private final RedisTemplate<String, Object> redisTemplate;
     private final SysUserRoleMapper sysUserRoleMapper;
-    private final MinioUtil minioUtil;
-    private final MinioConfig minioConfig;
+    private final GitHubAvatarMirror gitHubAvatarMirror;
+    private final LoginEventPipeline loginEventPipeline;
+    private final AccountBloomFilter accountBloomFilter;
+    private final LoginTokenIssuer loginTokenIssuer;
+    private final TransactionTemplate transactionTemplate;
+    private final GitHubOAuthStateStore oauthStateStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientIpResolver clientIpResolver;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public GitHubOAuthConfirmVO handleGitHubCallbackForConfirm(GitHubOAuthDTO oauthDTO) {
         log.info("开始处理GitHub OAuth回调, code长度: {}", oauthDTO.getCode() != null ? oauthDTO.getCode().length() : 0);
 
@@ -75,38 +86,15 @@ public class OAuthServiceImpl implements OAuthService {
 
             // 4. 生成临时token
             String tempToken = UUID.randomUUID().toString();
-            String tempKey = GITHUB_OAUTH_TEMP_PREFIX + tempToken;
 
             // 5. 暂存GitHub用户信息到Redis
-            Map<String, Object> tempData = new HashMap<>();
-            tempData.put("githubId", githubUser.getId());
-            tempData.put("githubLogin", githubUser.getLogin());
-            tempData.put("name", githubUser.getName());
-            tempData.put("email", githubUser.getEmail());
-            tempData.put("avatarUrl", githubUser.getAvatarUrl());
-            tempData.put("bio", githubUser.getBio());
-            tempData.put("isNewUser", isNewUser);
-
-            redisTemplate.opsForValue().set(tempKey, tempData, TEMP_TOKEN_EXPIRE_SECONDS, TimeUnit.SECONDS);
+            GitHubOAuthState state = new GitHubOAuthState(githubUser.getId(), githubUser.getLogin(),
+                    githubUser.getName(), githubUser.getEmail(), githubUser.getAvatarUrl(), githubUser.getBio(), isNewUser);
+            oauthStateStore.save(tempToken, state, TEMP_TOKEN_EXPIRE_SECONDS);
             log.info("暂存GitHub用户信息, tempToken: {}, 有效期: {}秒", tempToken, TEMP_TOKEN_EXPIRE_SECONDS);
 
             // 6. 构建确认信息返回
-            String suggestedUsername = "github_" + githubUser.getId();
-            String suggestedNickname = githubUser.getName() != null ? githubUser.getName() : githubUser.getLogin();
-            String suggestedEmail = githubUser.getEmail() != null ? githubUser.getEmail() : "github_" + githubUser.getId() + "@github.com";
-
-            GitHubOAuthConfirmVO confirmVO = new GitHubOAuthConfirmVO();
-            confirmVO.setTempToken(tempToken);
-            confirmVO.setGithubId(githubUser.getId());
-            confirmVO.setGithubLogin(githubUser.getLogin());
-            confirmVO.setUsername(suggestedUsername);
-            confirmVO.setNickname(suggestedNickname);
-            confirmVO.setEmail(suggestedEmail);
-            confirmVO.setAvatarUrl(githubUser.getAvatarUrl());
-            confirmVO.setBio(githubUser.getBio());
-            confirmVO.setIsNewUser(isNewUser);
-
-            return confirmVO;
+            return buildConfirmVO(tempToken, state);
 
         } catch (BusinessException e) {
             log.error("GitHub OAuth业务异常: {}", e.getMessage());
@@ -122,39 +110,13 @@ public class OAuthServiceImpl implements OAuthService {
         log.info("获取GitHub用户信息, tempToken: {}", tempToken);
 
         try {
-            String tempKey = GITHUB_OAUTH_TEMP_PREFIX + tempToken;
-            @SuppressWarnings("unchecked")
-            Map<String, Object> tempData = (Map<String, Object>) redisTemplate.opsForValue().get(tempKey);
-
-            if (tempData == null) {
+            GitHubOAuthState state = oauthStateStore.get(tempToken);
+            if (state == null) {
                 log.error("GitHub OAuth临时token已过期或不存在: {}", tempToken);
                 throw new BusinessException(ErrorCode.GITHUB_AUTH_FAILED, "临时登录凭证已过期，请重新授权");
             }
 
-            Long githubId = ((Number) tempData.get("githubId")).longValue();
-            String githubLogin = (String) tempData.get("githubLogin");
-            String name = (String) tempData.get("name");
-            String originalEmail = (String) tempData.get("email");
-            String avatarUrl = (String) tempData.get("avatarUrl");
-            String bio = (String) tempData.get("bio");
-            boolean isNewUser = (Boolean) tempData.get("isNewUser");
-
-            String suggestedUsername = "github_" + githubId;
-            String suggestedNickname = name != null ? name : githubLogin;
-            String suggestedEmail = originalEmail != null ? originalEmail : "github_" + githubId + "@github.com";
-
-            GitHubOAuthConfirmVO confirmVO = new GitHubOAuthConfirmVO();
-            confirmVO.setTempToken(tempToken);
-            confirmVO.setGithubId(githubId);
-            confirmVO.setGithubLogin(githubLogin);
-            confirmVO.setUsername(suggestedUsername);
-            confirmVO.setNickname(suggestedNickname);
-            confirmVO.setEmail(suggestedEmail);
-            confirmVO.setAvatarUrl(avatarUrl);
-            confirmVO.setBio(bio);
-            confirmVO.setIsNewUser(isNewUser);
-
-            return confirmVO;
+            return buildConfirmVO(tempToken, state);
 
         } catch (BusinessException e) {
             throw e;
@@ -165,51 +127,43 @@ public class OAuthServiceImpl implements OAuthService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public LoginVO confirmGitHubLogin(GitHubOAuthConfirmDTO confirmDTO) {
         log.info("开始确认GitHub登录, tempToken: {}", confirmDTO.getTempToken());
 
         try {
-            // 1. 从Redis获取暂存的GitHub用户信息
-            String tempKey = GITHUB_OAUTH_TEMP_PREFIX + confirmDTO.getTempToken();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> tempData = (Map<String, Object>) redisTemplate.opsForValue().get(tempKey);
-
-            if (tempData == null) {
+            // 1. 原子读取并删除暂存的GitHub用户信息，重复提交时只有一个请求能取到
+            GitHubOAuthState state = oauthStateStore.take(confirmDTO.getTempToken());
+            if (state == null) {
                 log.error("GitHub OAuth临时token已过期或不存在: {}", confirmDTO.getTempToken());
                 throw new BusinessException(ErrorCode.GITHUB_AUTH_FAILED, "临时登录凭证已过期，请重新授权");
             }
 
-            // 2. 删除临时token，防止重复使用
-            redisTemplate.delete(tempKey);
-
-            // 3. 提取GitHub用户信息
-            Long githubId = ((Number) tempData.get("githubId")).longValue();
-            String githubLogin = (String) tempData.get("githubLogin");
-            String name = (String) tempData.get("name");
-            String originalEmail = (String) tempData.get("email");
-            String avatarUrl = (String) tempData.get("avatarUrl");
-            String bio = (String) tempData.get("bio");
-            boolean isNewUser = (Boolean) tempData.get("isNewUser");
-
-            // 4. 使用用户确认的信息（如果没有提供，则使用默认值）
+            // 2. 使用用户确认的信息（如果没有提供，则使用默认值）
+            long githubId = state.githubId();
             String username = confirmDTO.getUsername() != null ? confirmDTO.getUsername() : "github_" + githubId;
-            String nickname = confirmDTO.getNickname() != null ? confirmDTO.getNickname() : (name != null ? name : githubLogin);
-            String email = confirmDTO.getEmail() != null ? confirmDTO.getEmail() : (originalEmail != null ? originalEmail : "github_" + githubId + "@github.com");
+            String nickname = confirmDTO.getNickname() != null ? confirmDTO.getNickname() : suggestedNickname(state);
+            String email = confirmDTO.getEmail() != null ? confirmDTO.getEmail() : suggestedEmail(state);
 
-            // 5. 查找或创建用户
-            SysUser sysUser = findOrCreateUser(githubId, username, nickname, email, avatarUrl, bio, isNewUser);
+            // 3. 查找或创建用户，只有这一步在事务中执行；失败时放回临时状态，用户修改信息后可再次确认
+            SysUser sysUser;
+            try {
+                sysUser = transactionTemplate.execute(status -> findOrCreateUser(githubId, username, nickname,
+                        email, state.avatarUrl(), state.bio(), state.newUser()));
+            } catch (RuntimeException e) {
+                restoreState(confirmDTO.getTempToken(), state);
+                throw e;
+            }
             log.info("用户处理完成, 用户ID: {}, 用户名: {}", sysUser.getId(), sysUser.getUsername());
 
-            // 6. 创建 Sa-Token 会话
-            StpUtil.login(sysUser.getId());
-            String token = StpUtil.getTokenValue();
+            // 4. 签发登录令牌
+            LoginTokenIssuer.IssuedToken issued = loginTokenIssuer.issue(sysUser.getId());
+            String token = issued.token();
 
-            // 7. 更新用户最后登录时间
-            updateUserLoginInfo(sysUser);
+            // 5. 登录日志与最后登录时间异步批量写入
+            recordLogin(sysUser, token);
 
-            // 8. 构建返回结果（兼容前端字段）
-            LoginVO loginVO = buildLoginVO(sysUser, token, "");
+            // 6. 构建返回结果（兼容前端字段）
+            LoginVO loginVO = buildLoginVO(sysUser, token, issued.refreshToken());
             log.info("GitHub OAuth登录成功, 用户ID: {}", sysUser.getId());
 
             return loginVO;
@@ -224,35 +178,26 @@ public class OAuthServiceImpl implements OAuthService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public LoginVO loginGitHubExistingUser(String tempToken) {
         log.info("老用户直接GitHub登录, tempToken: {}", tempToken);
 
         try {
-            // 1. 从Redis获取暂存的GitHub用户信息
-            String tempKey = GITHUB_OAUTH_TEMP_PREFIX + tempToken;
-            @SuppressWarnings("unchecked")
-            Map<String, Object> tempData = (Map<String, Object>) redisTemplate.opsForValue().get(tempKey);
-
-            if (tempData == null) {
+            // 1. 原子读取并删除暂存的GitHub用户信息，防止重复使用
+            GitHubOAuthState state = oauthStateStore.take(tempToken);
+            if (state == null) {
                 log.error("GitHub OAuth临时token已过期或不存在: {}", tempToken);
                 throw new BusinessException(ErrorCode.GITHUB_AUTH_FAILED, "临时登录凭证已过期，请重新授权");
             }
 
-            // 2. 删除临时token，防止重复使用
-            redisTemplate.delete(tempKey);
-
-            // 3. 提取GitHub用户信息
-            Long githubId = ((Number) tempData.get("githubId")).longValue();
-            String avatarUrl = (String) tempData.get("avatarUrl");
-            boolean isNewUser = (Boolean) tempData.get("isNewUser");
-
-            if (isNewUser) {
+            // 2. 只允许已注册用户直接登录
+            long githubId = state.githubId();
+            if (state.newUser()) {
+                restoreState(tempToken, state);
                 log.error("新用户不能使用老用户直接登录接口, githubId: {}", githubId);
                 throw new BusinessException(ErrorCode.GITHUB_AUTH_FAILED, "新用户需要先确认信息");
             }
 
-            // 4. 查找现有用户
+            // 3. 查找现有用户
             LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
             wrapper.eq(SysUser::getUsername, "github_" + githubId);
             SysUser sysUser = sysUserMapper.selectOne(wrapper);
@@ -262,35 +207,18 @@ public class OAuthServiceImpl implements OAuthService {
                 throw new BusinessException(ErrorCode.USER_NOT_FOUND);
             }
 
-            // 5. 更新用户信息（包括头像）
-            boolean needUpdate = false;
-            if (avatarUrl != null) {
-                try {
-                    Map<String, Object> uploadResult = uploadAvatarToMinio(avatarUrl, githubId);
-                    sysUser.setAvatarName((String) uploadResult.get("fileName"));
-                    sysUser.setAvatarSize((Long) uploadResult.get("fileSize"));
-                    sysUser.setAvatarUrl((String) uploadResult.get("fileUrl"));
-                    needUpdate = true;
-                    log.info("更新GitHub用户头像成功, 用户ID: {}", sysUser.getId());
-                } catch (Exception e) {
-                    log.warn("上传GitHub头像到MinIO失败，使用GitHub原始URL: {}", e.getMessage());
-                    sysUser.setAvatarUrl(avatarUrl);
-                    needUpdate = true;
-                }
-            }
-            if (needUpdate) {
-                sysUserMapper.updateById(sysUser);
-            }
+            // 4. 头像由后台任务同步，GitHub头像未变化时不会重复上传
+            gitHubAvatarMirror.schedule(sysUser.getId(), state.avatarUrl());
 
-            // 6. 创建 Sa-Token 会话
-            StpUtil.login(sysUser.getId());
-            String token = StpUtil.getTokenValue();
+            // 5. 签发登录令牌
+            LoginTokenIssuer.IssuedToken issued = loginTokenIssuer.issue(sysUser.getId());
+            String token = issued.token();
 
-            // 7. 更新用户最后登录时间
-            updateUserLoginInfo(sysUser);
+            // 6. 登录日志与最后登录时间异步批量写入
+            recordLogin(sysUser, token);
 
-            // 8. 构建返回结果（兼容前端字段）
-            LoginVO loginVO = buildLoginVO(sysUser, token, "");
+            // 7. 构建返回结果（兼容前端字段）
+            LoginVO loginVO = buildLoginVO(sysUser, token, issued.refreshToken());
             log.info("GitHub老用户直接登录成功, 用户ID: {}", sysUser.getId());
 
             return loginVO;
@@ -304,6 +232,31 @@ public class OAuthServiceImpl implements OAuthService {
         }
     }
 
+    /**
+     * 根据暂存信息构建确认页数据
+     */
+    private GitHubOAuthConfirmVO buildConfirmVO(String tempToken, GitHubOAuthState state) {
+        GitHubOAuthConfirmVO confirmVO = new GitHubOAuthConfirmVO();
+        confirmVO.setTempToken(tempToken);
+        confirmVO.setGithubId(state.githubId());
+        confirmVO.setGithubLogin(state.githubLogin());
+        confirmVO.setUsername("github_" + state.githubId());
+        confirmVO.setNickname(suggestedNickname(state));
+        confirmVO.setEmail(suggestedEmail(state));
+        confirmVO.setAvatarUrl(state.avatarUrl());
+        confirmVO.setBio(state.bio());
+        confirmVO.setIsNewUser(state.newUser());
+        return confirmVO;
+    }
+
+    private static String suggestedNickname(GitHubOAuthState state) {
+        return state.name() != null ? state.name() : state.githubLogin();
+    }
+
+    private static String suggestedEmail(GitHubOAuthState state) {
+        return state.email() != null ? state.email() : "github_" + state.githubId() + "@github.com";
+    }
+
     /**
      * 检查用户是否已存在
      */
@@ -334,24 +287,12 @@ public class OAuthServiceImpl implements OAuthService {
                     sysUser.setBio(bio);
                     needUpdate = true;
                 }
-                // 每次登录都更新头像（GitHub用户可能更换头像）
-                if (githubAvatarUrl != null) {
-                    try {
-                        Map<String, Object> uploadResult = uploadAvatarToMinio(githubAvatarUrl, githubId);
-                        sysUser.setAvatarName((String) uploadResult.get("fileName"));
-                        sysUser.setAvatarSize((Long) uploadResult.get("fileSize"));
-                        sysUser.setAvatarUrl((String) uploadResult.get("fileUrl"));
-                        needUpdate = true;
-                        log.info("更新GitHub用户头像成功, 用户ID: {}", sysUser.getId());
-                    } catch (Exception e) {
-                        log.warn("上传GitHub头像到MinIO失败，使用GitHub原始URL: {}", e.getMessage());
-                        sysUser.setAvatarUrl(githubAvatarUrl);
-                        needUpdate = true;
-                    }
-                }
                 if (needUpdate) {
                     sysUserMapper.updateById(sysUser);
+                    eventPublisher.publishEvent(new UserChangedEvent(sysUser.getId()));
                 }
+                // GitHub用户可能更换头像，由后台任务检查并同步
+                gitHubAvatarMirror.schedule(sysUser.getId(), githubAvatarUrl);
                 return sysUser;
             }
         }
@@ -366,20 +307,12 @@ public class OAuthServiceImpl implements OAuthService {
         sysUser.setOnlineStatus("offline");
         sysUser.setLastSeenAt(OffsetDateTime.now());
 
-        // 上传GitHub头像到MinIO
-        if (githubAvatarUrl != null) {
-            try {
-                Map<String, Object> uploadResult = uploadAvatarToMinio(githubAvatarUrl, githubId);
-                sysUser.setAvatarName((String) uploadResult.get("fileName"));
-                sysUser.setAvatarSize((Long) uploadResult.get("fileSize"));
-                sysUser.setAvatarUrl((String) uploadResult.get("fileUrl"));
-            } catch (Exception e) {
-                log.warn("上传GitHub头像到MinIO失败，使用GitHub原始URL: {}", e.getMessage());
-                sysUser.setAvatarUrl(githubAvatarUrl);
-            }
-        }
+        // 先使用GitHub原始头像，镜像到MinIO后由后台任务替换
+        sysUser.setAvatarUrl(githubAvatarUrl);
 
         sysUserMapper.insert(sysUser);
+        accountBloomFilter.add(sysUser.getUsername(), sysUser.getEmail());
+        gitHubAvatarMirror.schedule(sysUser.getId(), githubAvatarUrl);
 
         // 给新用户分配默认普通用户角色
         if (isNewUser) {
@@ -389,27 +322,6 @@ public class OAuthServiceImpl implements OAuthService {
         return sysUser;
     }
 
-    /**
-     * 上传GitHub头像到MinIO
-     *
-     * @param githubAvatarUrl GitHub头像URL
-     * @param githubId GitHub用户ID
-     * @return 包含fileName、fileSize、fileUrl的Map
-     */
-    private Map<String, Object> uploadAvatarToMinio(String githubAvatarUrl, Long githubId) {
-        log.info("开始上传GitHub头像到MinIO, GitHub ID: {}, URL: {}", githubId, githubAvatarUrl);
-
-        String fileName = "avatars/github_" + githubId + "_" + System.currentTimeMillis() + ".jpg";
-        Map<String, Object> result = minioUtil.uploadImageFromUrl(
-                minioConfig.getBucketName(),
-                githubAvatarUrl,
-                fileName
-        );
-
-        log.info("GitHub头像上传成功, GitHub ID: {}, 结果: {}", githubId, result);
-        return result;
-    }
-
     /**
      * 给用户分配默认普通用户角色
      */
@@ -540,12 +452,19 @@ public class OAuthServiceImpl implements OAuthService {
     }
 
     /**
-     * 更新用户登录信息
+     * 提交登录事件，登录日志与最后登录时间由后台批量写入
      */
-    private void updateUserLoginInfo(SysUser sysUser) {
-        sysUser.setLastLoginAt(OffsetDateTime.now());
-        sysUser.setLastSeenAt(OffsetDateTime.now());
-        sysUserMapper.updateById(sysUser);
+    private void recordLogin(SysUser sysUser, String token) {
+        String ipAddress = null;
+        String userAgent = null;
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            HttpServletRequest request = attributes.getRequest();
+            ipAddress = clientIpResolver.resolve(request);
+            userAgent = request.getHeader("User-Agent");
+        }
+        loginEventPipeline.submit(LoginEvent.success(sysUser.getId(), sysUser.getUsername(),
+                LoginEvent.TYPE_GITHUB, ipAddress, userAgent, token));
     }
 
     /**
@@ -559,6 +478,17 @@ public class OAuthServiceImpl implements OAuthService {
         return loginVO;
     }
 
+    /**
+     * 放回已取出的临时状态，放回失败时用户需重新授权
+     */
+    private void restoreState(String tempToken, GitHubOAuthState state) {
+        try {
+            oauthStateStore.save(tempToken, state, TEMP_TOKEN_EXPIRE_SECONDS);
+        } catch (Exception e) {
+            log.warn("GitHub OAuth临时状态放回失败, tempToken: {}, error: {}", tempToken, e.getMessage());
+        }
+    }
+
     /**
      * 构建用户信息
      */
@@ -3,29 +3,37 @@ package com.nebula.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.config.result.ResultCode;
+import com.nebula.config.security.SignedTokenService;
+import com.nebula.config.security.SignedTokenService.SignedToken;
+import com.nebula.config.util.ClientIpResolver;
 import com.nebula.model.dto.PasswordResetConfirmDTO;
 import com.nebula.model.dto.PasswordResetRequestDTO;
 import com.nebula.model.entity.PasswordResetToken;
 import com.nebula.model.entity.SysUser;
+import com.nebula.service.cache.AccountBloomFilter;
+import com.nebula.service.cache.UserChangedEvent;
+import com.nebula.service.log.AuditExecutor;
 import com.nebula.service.mapper.PasswordResetTokenMapper;
 import com.nebula.service.mapper.SysUserMapper;
 import com.nebula.service.service.EmailService;
 import com.nebula.service.service.PasswordResetService;
+import com.nebula.service.service.QuotaService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.util.Optional;
-import java.util.UUID;
 
 /**
  * 密码重置服务实现
+ * 重置令牌为自校验的签名令牌，校验不访问数据库；password_reset_tokens 表仅作为异步写入的审计记录
  */
 @Slf4j
 @Service
@@ -34,8 +42,16 @@ public class PasswordResetServiceImpl implements PasswordResetService {
 
     private final PasswordResetTokenMapper tokenMapper;
     private final SysUserMapper userMapper;
+    private final AccountBloomFilter accountBloomFilter;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SignedTokenService signedTokenService;
+    private final AuditExecutor auditExecutor;
+    private final QuotaService quotaService;
+    private final ClientIpResolver clientIpResolver;
+
+    private static final String TOKEN_PURPOSE = "password_reset";
 
     // 令牌有效期：1小时
     private static final int TOKEN_EXPIRY_HOURS = 1;
@@ -43,14 +59,16 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private static final int MAX_DAILY_REQUESTS = 3;
 
     @Override
-    @Transactional
     public void requestPasswordReset(PasswordResetRequestDTO requestDTO) {
         String email = requestDTO.getEmail();
 
-        // 1. 查找用户
-        LambdaQueryWrapper<SysUser> userWrapper = new LambdaQueryWrapper<>();
-        userWrapper.eq(SysUser::getEmail, email);
-        SysUser user = userMapper.selectOne(userWrapper);
+        // 1. 查找用户，本地与 Redis 布隆过滤器均判定邮箱不存在时不再查库
+        SysUser user = null;
+        if (accountBloomFilter.mightContainEmailStrict(email)) {
+            LambdaQueryWrapper<SysUser> userWrapper = new LambdaQueryWrapper<>();
+            userWrapper.eq(SysUser::getEmail, email);
+            user = userMapper.selectOne(userWrapper);
+        }
 
         if (user == null) {
             // 为了安全，不暴露邮箱是否存在
@@ -59,28 +77,19 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         }
 
         // 2. 检查当日请求次数
-        OffsetDateTime todayStart = OffsetDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LambdaQueryWrapper<PasswordResetToken> countWrapper = new LambdaQueryWrapper<>();
-        countWrapper.eq(PasswordResetToken::getUserId, user.getId())
-                .ge(PasswordResetToken::getCreateTime, todayStart);
-        long todayCount = tokenMapper.selectCount(countWrapper);
-
-        if (todayCount >= MAX_DAILY_REQUESTS) {
+        if (!quotaService.tryAcquire(TOKEN_PURPOSE, String.valueOf(user.getId()), MAX_DAILY_REQUESTS)) {
             throw new BusinessException(ResultCode.ERROR, "今日密码重置请求次数已达上限，请明天再试");
         }
 
-        // 3. 使之前的令牌失效
-        tokenMapper.expirePendingByUser(user.getId());
-
-        // 4. 生成新令牌
-        String token = UUID.randomUUID().toString();
+        // 3. 签发签名令牌，该用户之前的令牌随即失效
+        String token = signedTokenService.issue(user.getId(), TOKEN_PURPOSE, Duration.ofHours(TOKEN_EXPIRY_HOURS));
 
-        // 5. 获取请求信息
+        // 4. 获取请求信息
         HttpServletRequest request = getCurrentRequest();
-        String ipAddress = request != null ? getClientIpAddress(request) : null;
+        String ipAddress = request != null ? clientIpResolver.resolve(request) : null;
         String userAgent = request != null ? request.getHeader("User-Agent") : null;
 
-        // 6. 保存令牌
+        // 5. 异步写入审计记录
         PasswordResetToken resetToken = new PasswordResetToken();
         resetToken.setUserId(user.getId());
         resetToken.setEmail(email);
@@ -93,9 +102,13 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         resetToken.setUpdateTime(OffsetDateTime.now());
         resetToken.setDeleted(0);
 
-        tokenMapper.insert(resetToken);
+        Long userId = user.getId();
+        auditExecutor.execute("password_reset_tokens", () -> {
+            tokenMapper.expirePendingByUser(userId);
+            tokenMapper.insert(resetToken);
+        });
 
-        // 7. 发送邮件
+        // 6. 发送邮件
         emailService.sendPasswordResetEmail(email, token);
 
         log.info("密码重置邮件已发送: userId={}, email={}", user.getId(), email);
@@ -103,25 +116,12 @@ public class PasswordResetServiceImpl implements PasswordResetService {
 
     @Override
     public boolean validateToken(String token) {
-        Optional<PasswordResetToken> tokenOpt = tokenMapper.findByToken(token);
-
-        if (tokenOpt.isEmpty()) {
-            return false;
-        }
-
-        PasswordResetToken resetToken = tokenOpt.get();
-
-        // 检查状态
-        if (!"pending".equals(resetToken.getStatus())) {
-            return false;
-        }
-
-        // 检查是否过期
-        if (resetToken.getExpiresAt().isBefore(OffsetDateTime.now())) {
+        // 签名无效或已过期时直接返回，不访问 Redis
+        SignedToken signedToken = signedTokenService.parse(token, TOKEN_PURPOSE);
+        if (signedToken == null || signedToken.isExpired()) {
             return false;
         }
-
-        return true;
+        return signedTokenService.isCurrent(signedToken);
     }
 
     @Override
@@ -136,27 +136,22 @@ public class PasswordResetServiceImpl implements PasswordResetService {
             throw new BusinessException(ResultCode.PARAM_ERROR, "两次输入的密码不一致");
         }
 
-        // 2. 验证令牌
-        Optional<PasswordResetToken> tokenOpt = tokenMapper.findByToken(token);
-        if (tokenOpt.isEmpty()) {
+        // 2. 校验令牌签名与有效期，无效链接不访问数据库
+        SignedToken signedToken = signedTokenService.parse(token, TOKEN_PURPOSE);
+        if (signedToken == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR, "无效的重置令牌");
         }
-
-        PasswordResetToken resetToken = tokenOpt.get();
-
-        // 3. 检查状态
-        if (!"pending".equals(resetToken.getStatus())) {
-            throw new BusinessException(ResultCode.ERROR, "该重置链接已" +
-                    ("used".equals(resetToken.getStatus()) ? "使用" : "过期"));
+        if (signedToken.isExpired()) {
+            throw new BusinessException(ResultCode.ERROR, "重置链接已过期，请重新申请");
         }
 
-        // 4. 检查是否过期
-        if (resetToken.getExpiresAt().isBefore(OffsetDateTime.now())) {
-            throw new BusinessException(ResultCode.ERROR, "重置链接已过期，请重新申请");
+        // 3. 原子消费令牌，已使用或已被新令牌取代时失败
+        if (!signedTokenService.consume(signedToken)) {
+            throw new BusinessException(ResultCode.ERROR, "该重置链接已失效");
         }
 
-        // 5. 更新用户密码
-        SysUser user = userMapper.selectById(resetToken.getUserId());
+        // 4. 更新用户密码
+        SysUser user = userMapper.selectById(signedToken.userId());
         if (user == null) {
             throw new BusinessException(ResultCode.NOT_FOUND, "用户不存在");
         }
@@ -164,11 +159,12 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdateTime(java.time.OffsetDateTime.now());
         userMapper.updateById(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
-        // 6. 标记令牌为已使用
-        tokenMapper.markAsUsed(resetToken.getId());
+        // 5. 异步标记审计记录为已使用
+        auditExecutor.execute("password_reset_tokens", () -> tokenMapper.markAsUsedByToken(token));
 
-        log.info("密码重置成功: userId={}, email={}", user.getId(), resetToken.getEmail());
+        log.info("密码重置成功: userId={}, email={}", user.getId(), user.getEmail());
     }
 
     @Override
@@ -189,37 +185,4 @@ public class PasswordResetServiceImpl implements PasswordResetService {
             return null;
         }
     }
-
-    /**
-     * 获取客户端真实IP地址
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String[] headerNames = {
-                "X-Forwarded-For",
-                "X-Real-IP",
-                "Proxy-Client-IP",
-                "WL-Proxy-Client-IP",
-                "HTTP_X_FORWARDED_FOR",
-                "HTTP_X_FORWARDED",
-                "HTTP_X_CLUSTER_CLIENT_IP",
-                "HTTP_CLIENT_IP",
-                "HTTP_FORWARDED_FOR",
-                "HTTP_FORWARDED",
-                "HTTP_VIA",
-                "REMOTE_ADDR"
-        };
-
-        for (String headerName : headerNames) {
-            String ip = request.getHeader(headerName);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                // 如果包含多个IP，取第一个
-                if (ip.contains(",")) {
-                    ip = ip.split(",")[0].trim();
-                }
-                return ip;
-            }
-        }
-
-        return request.getRemoteAddr();
-    }
 }
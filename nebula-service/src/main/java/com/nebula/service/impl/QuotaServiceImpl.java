@@ -0,0 +1,87 @@
+package com.nebula.service.impl;
+
+import com.nebula.common.constant.RedisKey;
+import com.nebula.config.properties.QuotaProperties;
+import com.nebula.service.service.QuotaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 每日配额服务实现
+ * 计数保存在 Redis，INCR 与 EXPIREAT 由 Lua 脚本原子执行，计数在配额时区的次日零点过期；
+ * 已超出配额的主体在本地记录到当日结束，之后的请求不再访问 Redis
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuotaServiceImpl implements QuotaService {
+
+    /**
+     * 本地超额记录最大条目数，超出后整体清空
+     */
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    /**
+     * 计数加一，首次创建时设置过期时间
+     * KEYS: 计数；ARGV: 过期时间（秒级时间戳）
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            local count = redis.call('INCR', KEYS[1])
+            if count == 1 then
+                redis.call('EXPIREAT', KEYS[1], ARGV[1])
+            end
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final QuotaProperties quotaProperties;
+
+    /**
+     * 已超额的计数 Key -> 解除时间（毫秒）
+     */
+    private final ConcurrentHashMap<String, Long> exhausted = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryAcquire(String scope, String subject, int limit) {
+        ZoneId zoneId = quotaProperties.getZoneId();
+        LocalDate today = LocalDate.now(zoneId);
+        String key = RedisKey.RateLimit.dailyQuota(scope, today.format(DateTimeFormatter.BASIC_ISO_DATE), subject);
+        long resetAt = today.plusDays(1).atStartOfDay(zoneId).toEpochSecond();
+
+        Long blockedUntil = exhausted.get(key);
+        if (blockedUntil != null) {
+            if (blockedUntil > System.currentTimeMillis()) {
+                return false;
+            }
+            exhausted.remove(key);
+        }
+
+        Long count;
+        try {
+            count = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key), String.valueOf(resetAt));
+        } catch (Exception e) {
+            log.warn("每日配额计数失败，本次放行 | scope={}, subject={}, error={}", scope, subject, e.getMessage());
+            return true;
+        }
+        if (count == null || count <= limit) {
+            return true;
+        }
+
+        if (exhausted.size() >= LOCAL_MAX_SIZE) {
+            exhausted.clear();
+        }
+        exhausted.put(key, resetAt * 1000);
+        log.debug("每日配额已用尽 | scope={}, subject={}, limit={}", scope, subject, limit);
+        return false;
+    }
+}
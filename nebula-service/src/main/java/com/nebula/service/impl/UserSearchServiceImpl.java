@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.nebula.model.entity.SysUser;
 import com.nebula.model.vo.UserVO;
+import com.nebula.service.cache.UserProfile;
+import com.nebula.service.cache.UserProfileCache;
 import com.nebula.service.mapper.SysUserMapper;
 import com.nebula.service.service.UserSearchService;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class UserSearchServiceImpl implements UserSearchService {
 
     private final SysUserMapper sysUserMapper;
+    private final UserProfileCache userProfileCache;
 
     @Override
     public IPage<UserVO> searchUsers(String keyword, String onlineStatus, Integer pageNum, Integer pageSize) {
@@ -85,11 +88,11 @@ public class UserSearchServiceImpl implements UserSearchService {
 
     @Override
     public UserVO getUserById(Long userId) {
-        SysUser user = sysUserMapper.selectById(userId);
-        if (user == null) {
+        UserProfile profile = userProfileCache.get(userId);
+        if (profile == null) {
             return null;
         }
-        return convertToUserVO(user);
+        return convertToUserVO(profile);
     }
 
     @Override
@@ -107,19 +110,23 @@ public class UserSearchServiceImpl implements UserSearchService {
      * 转换为UserVO
      */
     private UserVO convertToUserVO(SysUser user) {
+        return convertToUserVO(UserProfile.of(user));
+    }
+
+    private UserVO convertToUserVO(UserProfile profile) {
         UserVO vo = new UserVO();
-        vo.setId(user.getId());
-        vo.setUsername(user.getUsername());
-        vo.setNickname(user.getNickname());
-        vo.setEmail(user.getEmail());
-        vo.setAvatar(user.getAvatarUrl());
-        vo.setStatus(user.getAccountStatus());
-        vo.setAccountStatus(user.getAccountStatus());
+        vo.setId(profile.id());
+        vo.setUsername(profile.username());
+        vo.setNickname(profile.nickname());
+        vo.setEmail(profile.email());
+        vo.setAvatar(profile.avatarUrl());
+        vo.setStatus(profile.accountStatus());
+        vo.setAccountStatus(profile.accountStatus());
 
         // 获取用户详细信息（从sys_users表已包含这些信息）
-        vo.setBio(user.getBio());
-        vo.setOnlineStatus(user.getOnlineStatus());
-        vo.setLastSeenAt(user.getLastSeenAt());
+        vo.setBio(profile.bio());
+        vo.setOnlineStatus(profile.onlineStatus());
+        vo.setLastSeenAt(profile.lastSeenAt());
 
         return vo;
     }
@@ -1,24 +1,23 @@
 package com.nebula.service.impl.system;
 
-import com.nebula.common.constant.AdminConstants;
-import com.nebula.model.entity.system.SysRole;
+import com.nebula.service.cache.PermissionCache;
+import com.nebula.service.cache.PermissionRegistry;
+import com.nebula.service.cache.PermissionSet;
 import com.nebula.service.service.system.PermissionService;
-import com.nebula.service.service.system.SysMenuService;
 import com.nebula.service.service.system.SysRoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
 
-    private final SysMenuService sysMenuService;
+    private final PermissionCache permissionCache;
+    private final PermissionRegistry permissionRegistry;
     private final SysRoleService sysRoleService;
 
     @Override
@@ -31,27 +30,29 @@ public class PermissionServiceImpl implements PermissionService {
             return true;
         }
 
-        Set<String> permissions = getUserPermissions(userId);
-        return permissions.contains(permission) || permissions.contains("*:*:*");
+        // 与接口授权规则相同的通配符展开，未注册的形式不分配ID
+        PermissionSet permissions = getUserPermissionSet(userId);
+        for (String granting : PermissionRegistry.grantingPermissions(permission)) {
+            if (permissions.contains(permissionRegistry.idOf(granting))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Set<String> getUserPermissions(Long userId) {
-        List<String> perms = sysMenuService.getPermsByUserId(userId);
-        return perms.stream().filter(p -> p != null && !p.isEmpty()).collect(Collectors.toSet());
+        return permissionCache.get(userId);
     }
 
     @Override
-    public String getDataScopeSql(Long userId, String tableAlias) {
-        if (sysRoleService.isSuperAdmin(userId)) {
-            return "";
-        }
-
-        List<SysRole> roles = sysRoleService.getRolesByUserId(userId);
-        boolean hasAllDataScope = roles.stream()
-                .anyMatch(r -> AdminConstants.ALL_DATA_SCOPE.equals(r.getDataScope()));
+    public PermissionSet getUserPermissionSet(Long userId) {
+        return permissionCache.getPermissionSet(userId);
+    }
 
-        if (hasAllDataScope) {
+    @Override
+    public String getDataScopeSql(Long userId, String tableAlias) {
+        if (sysRoleService.getAuthorizationContext(userId).hasAllDataScope()) {
             return "";
         }
 
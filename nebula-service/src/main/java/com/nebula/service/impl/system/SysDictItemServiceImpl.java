@@ -1,40 +1,58 @@
 package com.nebula.service.impl.system;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.nebula.model.entity.system.SysDictItem;
-import com.nebula.model.entity.system.SysDictType;
+import com.nebula.service.cache.DictCache;
+import com.nebula.service.cache.DictChangedEvent;
 import com.nebula.service.mapper.system.SysDictItemMapper;
-import com.nebula.service.mapper.system.SysDictTypeMapper;
 import com.nebula.service.service.system.SysDictItemService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysDictItemServiceImpl extends ServiceImpl<SysDictItemMapper, SysDictItem> implements SysDictItemService {
 
-    private final SysDictTypeMapper sysDictTypeMapper;
+    private static final String SOURCE = "sys_dict_item";
+
+    private final DictCache dictCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<SysDictItem> getItemsByDictCode(String dictCode) {
-        SysDictType dictType = sysDictTypeMapper.selectOne(
-                new LambdaQueryWrapper<SysDictType>()
-                        .eq(SysDictType::getDictCode, dictCode)
-                        .eq(SysDictType::getStatus, "ACTIVE")
-        );
-        if (dictType == null) {
-            return List.of();
-        }
-        return list(
-                new LambdaQueryWrapper<SysDictItem>()
-                        .eq(SysDictItem::getDictTypeId, dictType.getId())
-                        .eq(SysDictItem::getStatus, "ACTIVE")
-                        .orderByAsc(SysDictItem::getSortOrder)
-        );
+        return dictCache.getItems(dictCode);
+    }
+
+    @Override
+    public Map<String, List<SysDictItem>> getItemsByDictCodes(List<String> dictCodes) {
+        return dictCache.getItems(dictCodes);
+    }
+
+    @Override
+    public boolean save(SysDictItem entity) {
+        boolean saved = super.save(entity);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return saved;
+    }
+
+    @Override
+    public boolean updateById(SysDictItem entity) {
+        boolean updated = super.updateById(entity);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return removed;
     }
 }
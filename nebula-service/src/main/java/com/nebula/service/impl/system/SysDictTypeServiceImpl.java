@@ -2,14 +2,43 @@ package com.nebula.service.impl.system;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.nebula.model.entity.system.SysDictType;
+import com.nebula.service.cache.DictChangedEvent;
 import com.nebula.service.mapper.system.SysDictTypeMapper;
 import com.nebula.service.service.system.SysDictTypeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysDictTypeServiceImpl extends ServiceImpl<SysDictTypeMapper, SysDictType> implements SysDictTypeService {
+
+    private static final String SOURCE = "sys_dict_type";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public boolean save(SysDictType entity) {
+        boolean saved = super.save(entity);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return saved;
+    }
+
+    @Override
+    public boolean updateById(SysDictType entity) {
+        boolean updated = super.updateById(entity);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        eventPublisher.publishEvent(new DictChangedEvent(SOURCE));
+        return removed;
+    }
 }
@@ -6,16 +6,29 @@ import com.nebula.common.constant.AdminConstants;
 import com.nebula.common.exception.BusinessException;
 import com.nebula.common.exception.ErrorCode;
 import com.nebula.model.entity.system.SysMenu;
+import com.nebula.model.entity.system.SysRole;
 import com.nebula.model.entity.system.SysRoleMenu;
+import com.nebula.model.entity.system.SysUserRole;
+import com.nebula.service.cache.MenuChangedEvent;
+import com.nebula.service.cache.MenuTreeCache;
+import com.nebula.service.cache.PermissionChangedEvent;
 import com.nebula.service.mapper.system.SysMenuMapper;
 import com.nebula.service.mapper.system.SysRoleMenuMapper;
+import com.nebula.service.mapper.system.SysUserRoleMapper;
 import com.nebula.service.service.system.SysMenuService;
+import com.nebula.service.service.system.SysRoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,7 +38,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> implements SysMenuService {
 
+    private static final Comparator<SysMenu> MENU_ORDER =
+            Comparator.comparing(m -> m.getSortOrder() == null ? 0 : m.getSortOrder());
+
+    private final SysRoleService sysRoleService;
+    private final MenuTreeCache menuTreeCache;
     private final SysRoleMenuMapper sysRoleMenuMapper;
+    private final SysUserRoleMapper sysUserRoleMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<SysMenu> getMenuListByUserId(Long userId) {
@@ -42,43 +62,77 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
         return baseMapper.selectPermsByUserId(userId);
     }
 
+    @Override
+    public List<SysMenu> getMenuTree() {
+        return menuTreeCache.get(MenuTreeCache.ALL_MENUS_KEY, () -> buildMenuTree(list()));
+    }
+
+    @Override
+    public List<SysMenu> getUserMenuTree(Long userId) {
+        List<Long> roleIds = sysRoleService.getAuthorizationContext(userId).getRoles().stream()
+                .map(SysRole::getId)
+                .toList();
+        if (roleIds.isEmpty()) {
+            return List.of();
+        }
+        return menuTreeCache.get(MenuTreeCache.roleKey(roleIds),
+                () -> buildMenuTree(baseMapper.selectMenuListByRoleIds(roleIds)));
+    }
+
     @Override
     public List<SysMenu> buildMenuTree(List<SysMenu> menus) {
         // 构建 id -> name 映射，用于填充 parentName
         Map<Long, String> nameMap = menus.stream()
                 .filter(m -> m.getId() != null)
-                .collect(Collectors.toMap(SysMenu::getId, m -> m.getMenuName() != null ? m.getMenuName() : ""));
-        for (SysMenu menu : menus) {
-            if (menu.getParentId() != null && menu.getParentId() > 0) {
-                menu.setParentName(nameMap.get(menu.getParentId()));
-            }
-        }
+                .collect(Collectors.toMap(SysMenu::getId, m -> m.getMenuName() != null ? m.getMenuName() : "", (a, b) -> a));
 
+        // 按父ID分组，一次遍历完成
         List<SysMenu> tree = new ArrayList<>();
+        Map<Long, List<SysMenu>> childrenMap = new HashMap<>();
         for (SysMenu menu : menus) {
-            if (menu.getParentId() == null || menu.getParentId() == 0) {
+            Long parentId = menu.getParentId();
+            if (parentId == null || parentId == 0) {
                 tree.add(menu);
+            } else {
+                menu.setParentName(nameMap.get(parentId));
+                childrenMap.computeIfAbsent(parentId, k -> new ArrayList<>()).add(menu);
             }
         }
-        for (SysMenu menu : tree) {
-            menu.setChildren(getChildren(menu, menus));
+
+        // 自顶向下挂载子节点，每组只排序一次；取出即移除，异常数据中的环不会被重复访问
+        Deque<SysMenu> stack = new ArrayDeque<>(tree);
+        while (!stack.isEmpty()) {
+            SysMenu menu = stack.pop();
+            List<SysMenu> children = menu.getId() != null ? childrenMap.remove(menu.getId()) : null;
+            if (children == null) {
+                menu.setChildren(List.of());
+                continue;
+            }
+            children.sort(MENU_ORDER);
+            menu.setChildren(Collections.unmodifiableList(children));
+            stack.addAll(children);
         }
-        return tree;
+        return Collections.unmodifiableList(tree);
     }
 
-    private List<SysMenu> getChildren(SysMenu parent, List<SysMenu> menus) {
-        List<SysMenu> children = new ArrayList<>();
-        for (SysMenu menu : menus) {
-            if (parent.getId().equals(menu.getParentId())) {
-                menu.setChildren(getChildren(menu, menus));
-                children.add(menu);
-            }
+    @Override
+    public boolean save(SysMenu entity) {
+        boolean saved = super.save(entity);
+        // 新菜单尚未分配给任何角色，不影响已缓存的用户权限
+        eventPublisher.publishEvent(MenuChangedEvent.allMenus());
+        return saved;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateById(SysMenu entity) {
+        boolean updated = super.updateById(entity);
+        // 权限标识、状态变更会影响已分配该菜单的用户
+        if (updated && entity.getId() != null) {
+            eventPublisher.publishEvent(new PermissionChangedEvent(getUserIdsByMenuId(entity.getId())));
         }
-        return children.stream().sorted((m1, m2) -> {
-            Integer s1 = m1.getSortOrder() == null ? 0 : m1.getSortOrder();
-            Integer s2 = m2.getSortOrder() == null ? 0 : m2.getSortOrder();
-            return s1.compareTo(s2);
-        }).collect(Collectors.toList());
+        eventPublisher.publishEvent(MenuChangedEvent.allMenus());
+        return updated;
     }
 
     @Override
@@ -97,10 +151,32 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
             throw new BusinessException(ErrorCode.OPERATION_NOT_ALLOWED, "存在子菜单，无法删除");
         }
 
+        // 删除关联前先记录受影响的用户
+        List<Long> affectedUserIds = getUserIdsByMenuId(menuId);
+
         sysRoleMenuMapper.delete(
                 new LambdaQueryWrapper<SysRoleMenu>()
                         .eq(SysRoleMenu::getMenuId, menuId)
         );
         removeById(menuId);
+
+        eventPublisher.publishEvent(new PermissionChangedEvent(affectedUserIds));
+        eventPublisher.publishEvent(MenuChangedEvent.allMenus());
+    }
+
+    /**
+     * 查询分配了指定菜单的用户ID
+     */
+    private List<Long> getUserIdsByMenuId(Long menuId) {
+        List<Long> roleIds = sysRoleMenuMapper.selectList(
+                new LambdaQueryWrapper<SysRoleMenu>()
+                        .select(SysRoleMenu::getRoleId)
+                        .eq(SysRoleMenu::getMenuId, menuId)
+        ).stream().map(SysRoleMenu::getRoleId).toList();
+        return roleIds.isEmpty() ? List.of() : sysUserRoleMapper.selectList(
+                new LambdaQueryWrapper<SysUserRole>()
+                        .select(SysUserRole::getUserId)
+                        .in(SysUserRole::getRoleId, roleIds)
+        ).stream().map(SysUserRole::getUserId).distinct().toList();
     }
 }
@@ -8,32 +8,68 @@ import com.nebula.common.exception.ErrorCode;
 import com.nebula.model.entity.system.SysRole;
 import com.nebula.model.entity.system.SysRoleMenu;
 import com.nebula.model.entity.system.SysUserRole;
+import com.nebula.service.cache.MenuChangedEvent;
+import com.nebula.service.cache.PermissionChangedEvent;
+import com.nebula.service.context.AuthorizationContext;
 import com.nebula.service.mapper.system.SysRoleMapper;
 import com.nebula.service.mapper.system.SysRoleMenuMapper;
 import com.nebula.service.mapper.system.SysUserRoleMapper;
 import com.nebula.service.service.system.SysRoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> implements SysRoleService {
 
+    /**
+     * 请求属性名前缀，按用户ID保存请求级授权上下文
+     */
+    private static final String AUTH_CONTEXT_ATTR = AuthorizationContext.class.getName() + ".";
+
+    /**
+     * 批量插入每批行数
+     */
+    private static final int BATCH_SIZE = 1000;
+
     private final SysRoleMenuMapper sysRoleMenuMapper;
     private final SysUserRoleMapper sysUserRoleMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<SysRole> getRolesByUserId(Long userId) {
-        return baseMapper.selectList(
-                new LambdaQueryWrapper<SysRole>()
-                        .inSql(SysRole::getId, "SELECT role_id FROM sys_user_role WHERE user_id = " + userId)
-                        .eq(SysRole::getStatus, "ACTIVE")
-        );
+        return baseMapper.selectRolesByUserId(userId);
+    }
+
+    @Override
+    public AuthorizationContext getAuthorizationContext(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new AuthorizationContext(userId, getRolesByUserId(userId));
+        }
+
+        String attrName = AUTH_CONTEXT_ATTR + userId;
+        Object cached = attributes.getAttribute(attrName, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof AuthorizationContext context) {
+            return context;
+        }
+        AuthorizationContext context = new AuthorizationContext(userId, getRolesByUserId(userId));
+        attributes.setAttribute(attrName, context, RequestAttributes.SCOPE_REQUEST);
+        return context;
     }
 
     @Override
@@ -47,37 +83,63 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void saveRoleMenus(Long roleId, List<Long> menuIds) {
-        sysRoleMenuMapper.delete(
-                new LambdaQueryWrapper<SysRoleMenu>()
-                        .eq(SysRoleMenu::getRoleId, roleId)
-        );
+        // 与现有分配做差集，只删除移除项、批量插入新增项，避免整表重建期间角色短暂无权限
+        Set<Long> current = new HashSet<>(getMenuIdsByRoleId(roleId));
+        Set<Long> desired = toIdSet(menuIds);
+        List<Long> removed = current.stream().filter(id -> !desired.contains(id)).toList();
+        List<Long> added = desired.stream().filter(id -> !current.contains(id)).toList();
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
 
-        if (menuIds != null && !menuIds.isEmpty()) {
-            for (Long menuId : menuIds) {
-                SysRoleMenu roleMenu = new SysRoleMenu();
-                roleMenu.setRoleId(roleId);
-                roleMenu.setMenuId(menuId);
-                sysRoleMenuMapper.insert(roleMenu);
-            }
+        if (!removed.isEmpty()) {
+            sysRoleMenuMapper.delete(
+                    new LambdaQueryWrapper<SysRoleMenu>()
+                            .eq(SysRoleMenu::getRoleId, roleId)
+                            .in(SysRoleMenu::getMenuId, removed)
+            );
+        }
+        for (List<Long> batch : partition(added)) {
+            sysRoleMenuMapper.insertBatch(roleId, batch);
         }
+        log.info("角色菜单已更新 | roleId={}, added={}, removed={}", roleId, added.size(), removed.size());
+
+        eventPublisher.publishEvent(new PermissionChangedEvent(getUserIdsByRoleId(roleId)));
+        eventPublisher.publishEvent(new MenuChangedEvent(roleId));
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void assignRolesToUser(Long userId, List<Long> roleIds) {
-        sysUserRoleMapper.delete(
+        Set<Long> current = sysUserRoleMapper.selectList(
                 new LambdaQueryWrapper<SysUserRole>()
+                        .select(SysUserRole::getRoleId)
                         .eq(SysUserRole::getUserId, userId)
-        );
+        ).stream().map(SysUserRole::getRoleId).collect(Collectors.toSet());
+        Set<Long> desired = toIdSet(roleIds);
+        List<Long> removed = current.stream().filter(id -> !desired.contains(id)).toList();
+        List<Long> added = desired.stream().filter(id -> !current.contains(id)).toList();
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
 
-        if (roleIds != null && !roleIds.isEmpty()) {
-            for (Long roleId : roleIds) {
-                SysUserRole userRole = new SysUserRole();
-                userRole.setUserId(userId);
-                userRole.setRoleId(roleId);
-                sysUserRoleMapper.insert(userRole);
-            }
+        if (!removed.isEmpty()) {
+            sysUserRoleMapper.delete(
+                    new LambdaQueryWrapper<SysUserRole>()
+                            .eq(SysUserRole::getUserId, userId)
+                            .in(SysUserRole::getRoleId, removed)
+            );
         }
+        for (List<Long> batch : partition(added)) {
+            sysUserRoleMapper.insertBatch(userId, batch);
+        }
+
+        // 当前请求内已解析的上下文失效
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(AUTH_CONTEXT_ATTR + userId, RequestAttributes.SCOPE_REQUEST);
+        }
+        eventPublisher.publishEvent(new PermissionChangedEvent(List.of(userId)));
     }
 
     @Override
@@ -94,6 +156,9 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             throw new BusinessException(ErrorCode.CANNOT_DELETE_SYSTEM_ROLE);
         }
 
+        // 删除关联前先记录受影响的用户
+        List<Long> affectedUserIds = getUserIdsByRoleId(roleId);
+
         sysRoleMenuMapper.delete(
                 new LambdaQueryWrapper<SysRoleMenu>()
                         .eq(SysRoleMenu::getRoleId, roleId)
@@ -103,17 +168,62 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
                         .eq(SysUserRole::getRoleId, roleId)
         );
         removeById(roleId);
+
+        eventPublisher.publishEvent(new PermissionChangedEvent(affectedUserIds));
+        eventPublisher.publishEvent(new MenuChangedEvent(roleId));
+    }
+
+    @Override
+    public boolean updateById(SysRole entity) {
+        boolean updated = super.updateById(entity);
+        if (updated) {
+            // 角色状态或编码变更会影响拥有该角色用户的权限与菜单
+            eventPublisher.publishEvent(new PermissionChangedEvent(getUserIdsByRoleId(entity.getId())));
+            eventPublisher.publishEvent(new MenuChangedEvent(entity.getId()));
+        }
+        return updated;
     }
 
     @Override
     public boolean hasRole(Long userId, String roleCode) {
-        return getRolesByUserId(userId).stream()
-                .anyMatch(r -> roleCode.equals(r.getRoleCode()));
+        return getAuthorizationContext(userId).hasRole(roleCode);
     }
 
     @Override
     public boolean isSuperAdmin(Long userId) {
         return AdminConstants.SUPER_ADMIN_USER_ID.equals(userId) ||
-                hasRole(userId, AdminConstants.SUPER_ADMIN_ROLE_CODE);
+                getAuthorizationContext(userId).isSuperAdmin();
+    }
+
+    /**
+     * 查询拥有指定角色的用户ID
+     */
+    private List<Long> getUserIdsByRoleId(Long roleId) {
+        return sysUserRoleMapper.selectList(
+                new LambdaQueryWrapper<SysUserRole>()
+                        .select(SysUserRole::getUserId)
+                        .eq(SysUserRole::getRoleId, roleId)
+        ).stream().map(SysUserRole::getUserId).toList();
+    }
+
+    /**
+     * 去重并过滤空值，保持原有顺序
+     */
+    private static Set<Long> toIdSet(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Set.of();
+        }
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * 按批大小切分，避免单条语句绑定参数过多
+     */
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())));
+        }
+        return batches;
     }
 }
@@ -1,15 +1,47 @@
 package com.nebula.service.impl.system;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.nebula.config.security.LoginTokenIssuer;
 import com.nebula.model.entity.SysUser;
+import com.nebula.service.cache.UserChangedEvent;
 import com.nebula.service.mapper.SysUserMapper;
 import com.nebula.service.service.system.SysUserAdminService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysUserAdminServiceImpl extends ServiceImpl<SysUserMapper, SysUser> implements SysUserAdminService {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginTokenIssuer loginTokenIssuer;
+
+    @Override
+    public boolean updateById(SysUser entity) {
+        boolean updated = super.updateById(entity);
+        if (updated) {
+            eventPublisher.publishEvent(new UserChangedEvent(entity.getId()));
+            // 禁用账号时使其已登录的令牌立即失效
+            if (Integer.valueOf(0).equals(entity.getAccountStatus())) {
+                loginTokenIssuer.revokeUser(entity.getId());
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            Long userId = Long.valueOf(id.toString());
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
+            loginTokenIssuer.revokeUser(userId);
+        }
+        return removed;
+    }
 }
@@ -0,0 +1,44 @@
+package com.nebula.service.log;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 登录事件
+ * 登录成功或失败时提交给 {@link LoginEventPipeline}，由后台线程批量写入登录日志并更新最后登录时间
+ *
+ * @param userId     用户ID，账号不存在时为 null
+ * @param username   登录账号
+ * @param loginType  登录类型：password、github 等
+ * @param status     状态：success、failed、locked
+ * @param failReason 失败原因
+ * @param ipAddress  客户端IP
+ * @param userAgent  User-Agent
+ * @param tokenId    登录成功后的会话 token
+ * @param loginAt    登录时间
+ */
+public record LoginEvent(Long userId, String username, String loginType, String status, String failReason,
+                         String ipAddress, String userAgent, String tokenId, OffsetDateTime loginAt) {
+
+    public static final String TYPE_PASSWORD = "password";
+    public static final String TYPE_GITHUB = "github";
+
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_LOCKED = "locked";
+
+    public static LoginEvent success(Long userId, String username, String loginType,
+                                     String ipAddress, String userAgent, String tokenId) {
+        return new LoginEvent(userId, username, loginType, STATUS_SUCCESS, null,
+                ipAddress, userAgent, tokenId, OffsetDateTime.now());
+    }
+
+    public static LoginEvent failure(Long userId, String username, String loginType, String status,
+                                     String failReason, String ipAddress, String userAgent) {
+        return new LoginEvent(userId, username, loginType, status, failReason,
+                ipAddress, userAgent, null, OffsetDateTime.now());
+    }
+
+    public boolean isSuccess() {
+        return STATUS_SUCCESS.equals(status);
+    }
+}
@@ -0,0 +1,185 @@
+package com.nebula.service.log;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.http.useragent.UserAgent;
+import cn.hutool.http.useragent.UserAgentUtil;
+import com.nebula.model.entity.LoginLog;
+import com.nebula.service.cache.UserProfileCache;
+import com.nebula.service.mapper.LoginLogMapper;
+import com.nebula.service.mapper.SysUserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 登录副作用写入管道
+ * 登录请求只提交 {@link LoginEvent}，后台线程按数量或时间批量落库：
+ * 登录日志多行插入（失败时逐行重试），同一用户的多次最后登录时间合并为一条后批量更新，随后失效这些用户的资料缓存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginEventPipeline {
+
+    private static final int CAPACITY = 4096;
+    private static final int BATCH_SIZE = 500;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    /** 与 login_logs 列宽一致 */
+    private static final int USERNAME_MAX = 50;
+    private static final int IP_MAX = 45;
+    private static final int FAIL_REASON_MAX = 255;
+    private static final int UA_PART_MAX = 100;
+
+    private final LoginLogMapper loginLogMapper;
+    private final SysUserMapper sysUserMapper;
+    private final UserProfileCache userProfileCache;
+
+    private final RingBuffer<LoginEvent> buffer = new RingBuffer<>(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Thread consumer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = new Thread(this::consume, "login-event-pipeline");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 提交登录事件，缓冲区满时丢弃并计数
+     */
+    public void submit(LoginEvent event) {
+        if (!buffer.offer(event)) {
+            long count = dropped.incrementAndGet();
+            if ((count & (count - 1)) == 0) {
+                log.warn("登录事件缓冲区已满，已丢弃 {} 条", count);
+            }
+        }
+    }
+
+    private void consume() {
+        List<LoginEvent> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.nanoTime();
+        while (running || buffer.size() > 0) {
+            boolean due = buffer.size() >= BATCH_SIZE || System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS;
+            if (!due && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                flush(batch);
+                batch.clear();
+            }
+            lastFlush = System.nanoTime();
+        }
+    }
+
+    private void flush(List<LoginEvent> events) {
+        List<LoginLog> logs = new ArrayList<>(events.size());
+        Map<Long, OffsetDateTime> lastLogins = new HashMap<>();
+        for (LoginEvent event : events) {
+            logs.add(toLoginLog(event));
+            if (event.isSuccess() && event.userId() != null) {
+                lastLogins.merge(event.userId(), event.loginAt(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        try {
+            loginLogMapper.insertBatch(logs);
+        } catch (Exception e) {
+            log.warn("登录日志批量写入失败，改为逐行写入 | size={}, error={}", logs.size(), e.getMessage());
+            insertOneByOne(logs);
+        }
+        if (!lastLogins.isEmpty()) {
+            try {
+                sysUserMapper.updateLastLoginBatch(lastLogins);
+                userProfileCache.evictAll(lastLogins.keySet());
+            } catch (Exception e) {
+                log.warn("最后登录时间批量更新失败 | size={}, error={}", lastLogins.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 批量写入失败时逐行写入，单条坏数据只丢弃自身
+     */
+    private void insertOneByOne(List<LoginLog> logs) {
+        int failed = 0;
+        for (LoginLog loginLog : logs) {
+            try {
+                loginLogMapper.insert(loginLog);
+            } catch (Exception e) {
+                failed++;
+                log.warn("登录日志写入失败 | username={}, error={}", loginLog.getUsername(), e.getMessage());
+            }
+        }
+        if (failed > 0) {
+            log.warn("登录日志逐行写入完成 | total={}, failed={}", logs.size(), failed);
+        }
+    }
+
+    private LoginLog toLoginLog(LoginEvent event) {
+        LoginLog loginLog = new LoginLog();
+        loginLog.setUserId(event.userId());
+        loginLog.setUsername(StrUtil.maxLength(event.username(), USERNAME_MAX - 3));
+        loginLog.setLoginType(event.loginType());
+        loginLog.setStatus(event.status());
+        loginLog.setFailReason(StrUtil.maxLength(event.failReason(), FAIL_REASON_MAX - 3));
+        loginLog.setIpAddress(normalizeIp(event.ipAddress()));
+        loginLog.setUserAgent(event.userAgent());
+        loginLog.setTokenId(hashToken(event.tokenId()));
+        loginLog.setLoginAt(event.loginAt());
+        if (event.userAgent() != null && !event.userAgent().isEmpty()) {
+            UserAgent userAgent = UserAgentUtil.parse(event.userAgent());
+            if (userAgent != null) {
+                loginLog.setBrowser(StrUtil.maxLength(userAgent.getBrowser().getName(), UA_PART_MAX - 3));
+                loginLog.setOs(StrUtil.maxLength(userAgent.getOs().getName(), UA_PART_MAX - 3));
+                loginLog.setDevice(userAgent.isMobile() ? "mobile" : "desktop");
+            }
+        }
+        return loginLog;
+    }
+
+    private static String normalizeIp(String ip) {
+        if (StrUtil.isBlank(ip)) {
+            return "unknown";
+        }
+        String trimmed = ip.trim();
+        return trimmed.length() > IP_MAX ? trimmed.substring(0, IP_MAX) : trimmed;
+    }
+
+    /**
+     * 令牌只落库摘要，日志表泄露不会暴露可用的登录凭证
+     */
+    public static String hashToken(String token) {
+        return StrUtil.isBlank(token) ? null : DigestUtil.sha256Hex(token);
+    }
+}
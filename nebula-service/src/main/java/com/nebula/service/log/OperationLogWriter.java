@@ -0,0 +1,378 @@
+package com.nebula.service.log;
+
+import com.alibaba.fastjson2.JSON;
+import com.nebula.config.properties.OperationLogProperties;
+import com.nebula.config.properties.OperationLogProperties.OverflowPolicy;
+import com.nebula.model.entity.SysUser;
+import com.nebula.model.entity.system.SysOperationLog;
+import com.nebula.service.mapper.SysUserMapper;
+import com.nebula.service.mapper.system.SysOperationLogMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * 操作日志异步写入器
+ * 请求线程只负责将日志放入环形缓冲区，由后台线程批量多行插入 sys_operation_log，
+ * 缓冲区满时按配置丢弃、短暂等待或落盘
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OperationLogWriter {
+
+    private static final String SPILL_FILE = "spill.jsonl";
+    private static final String REPLAY_FILE = "replay.jsonl";
+    private static final String REPLAY_OFFSET_FILE = "replay.offset";
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final OperationLogProperties properties;
+    private final SysOperationLogMapper sysOperationLogMapper;
+    private final SysUserMapper sysUserMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Object spillLock = new Object();
+
+    private RingBuffer<SysOperationLog> buffer;
+    private Thread consumer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        buffer = new RingBuffer<>(properties.getCapacity());
+        running = true;
+        consumer = new Thread(this::consume, "operation-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+        meterRegistry.ifAvailable(this::bindMetrics);
+        log.info("操作日志写入器已启动 | capacity={}, policy={}", buffer.capacity(), properties.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("操作日志写入器已停止 | 剩余={}", buffer.size());
+    }
+
+    /**
+     * 提交一条操作日志，不会等待数据库写入
+     *
+     * @return 是否进入缓冲区或已落盘
+     */
+    public boolean submit(SysOperationLog operationLog) {
+        submitted.incrementAndGet();
+        if (buffer.offer(operationLog)) {
+            return true;
+        }
+        OverflowPolicy policy = properties.getOverflowPolicy();
+        if (policy == OverflowPolicy.BLOCK && offerWithin(operationLog, properties.getBlockTimeoutMillis())) {
+            return true;
+        }
+        if (policy == OverflowPolicy.SPILL && spill(List.of(operationLog))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 获取写入器运行统计
+     */
+    public Stats getStats() {
+        return new Stats(buffer.capacity(), buffer.size(), submitted.get(), written.get(),
+                dropped.get(), spilled.get(), failed.get());
+    }
+
+    private boolean offerWithin(SysOperationLog operationLog, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(operationLog)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void consume() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        List<SysOperationLog> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    break;
+                }
+                replaySpill(batchSize);
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<SysOperationLog> batch) {
+        List<SysOperationLog> rejected = batch;
+        try {
+            fillUsernames(batch);
+            sysOperationLogMapper.insertBatch(batch);
+            written.addAndGet(batch.size());
+            return;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("操作日志批量写入失败，改为逐行写入 | size={}, error={}", batch.size(), e.getMessage());
+            rejected = insertOneByOne(batch);
+        } catch (Exception e) {
+            log.warn("操作日志批量写入失败 | size={}, error={}", batch.size(), e.getMessage());
+        }
+        if (!rejected.isEmpty()
+                && (properties.getOverflowPolicy() != OverflowPolicy.SPILL || !spill(rejected))) {
+            failed.addAndGet(rejected.size());
+        }
+    }
+
+    /**
+     * 批量写入因数据问题失败时逐行写入，单条坏数据只丢弃自身，返回未能写入的日志
+     */
+    private List<SysOperationLog> insertOneByOne(List<SysOperationLog> batch) {
+        List<SysOperationLog> rejected = new ArrayList<>();
+        for (SysOperationLog item : batch) {
+            try {
+                sysOperationLogMapper.insert(item);
+                written.incrementAndGet();
+            } catch (Exception e) {
+                rejected.add(item);
+                log.warn("操作日志写入失败 | method={}, error={}", item.getMethod(), e.getMessage());
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * 请求线程不查询用户名，由写入线程按批次一次性补齐
+     */
+    private void fillUsernames(List<SysOperationLog> batch) {
+        List<Long> userIds = batch.stream()
+                .filter(item -> item.getUsername() == null)
+                .map(SysOperationLog::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> usernames = sysUserMapper.selectBatchIds(userIds).stream()
+                .collect(Collectors.toMap(SysUser::getId, SysUser::getUsername, (a, b) -> a));
+        batch.forEach(item -> {
+            if (item.getUsername() == null && item.getUserId() != null) {
+                item.setUsername(usernames.get(item.getUserId()));
+            }
+        });
+    }
+
+    /**
+     * 追加写入溢出文件，每行一条 JSON
+     */
+    private boolean spill(List<SysOperationLog> logs) {
+        String lines = logs.stream()
+                .map(JSON::toJSONString)
+                .collect(Collectors.joining("\n", "", "\n"));
+        synchronized (spillLock) {
+            try {
+                Path dir = Paths.get(properties.getSpillDir());
+                Files.createDirectories(dir);
+                Files.writeString(dir.resolve(SPILL_FILE), lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                spilled.addAndGet(logs.size());
+                return true;
+            } catch (IOException e) {
+                log.warn("操作日志落盘失败 | size={}, error={}", logs.size(), e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 缓冲区空闲时回放溢出文件。已入库的行号记录在偏移文件中，失败后从断点继续而不重复写入；
+     * 无法解析或违反表约束的行移入死信文件，不阻塞后续回放
+     */
+    private void replaySpill(int batchSize) {
+        Path dir = Paths.get(properties.getSpillDir());
+        Path replay = dir.resolve(REPLAY_FILE);
+        Path offsetFile = dir.resolve(REPLAY_OFFSET_FILE);
+        try {
+            if (!Files.exists(replay)) {
+                Path spill = dir.resolve(SPILL_FILE);
+                synchronized (spillLock) {
+                    if (!Files.exists(spill)) {
+                        return;
+                    }
+                    Files.deleteIfExists(offsetFile);
+                    Files.move(spill, replay, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            long committed = readOffset(offsetFile);
+            long lineNo = 0;
+            List<SpillLine> batch = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    if (lineNo <= committed || line.isBlank()) {
+                        continue;
+                    }
+                    SysOperationLog item = parseSpillLine(line);
+                    if (item == null) {
+                        deadLetter(line);
+                    } else {
+                        batch.add(new SpillLine(lineNo, line, item));
+                    }
+                    if (batch.size() >= batchSize) {
+                        replayBatch(batch, offsetFile);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayBatch(batch, offsetFile);
+            }
+            Files.delete(replay);
+            Files.deleteIfExists(offsetFile);
+            log.info("操作日志溢出文件已回放入库");
+        } catch (Exception e) {
+            log.warn("操作日志溢出文件回放失败，稍后从断点重试 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入一批回放日志并推进偏移；批量写入因数据问题失败时逐行写入，坏行移入死信文件，
+     * 数据库不可用等其他异常在记录已完成的偏移后抛出
+     */
+    private void replayBatch(List<SpillLine> batch, Path offsetFile) throws IOException {
+        List<SysOperationLog> logs = batch.stream().map(SpillLine::entry).toList();
+        fillUsernames(logs);
+        try {
+            sysOperationLogMapper.insertBatch(logs);
+            written.addAndGet(logs.size());
+        } catch (DataIntegrityViolationException e) {
+            for (SpillLine item : batch) {
+                try {
+                    sysOperationLogMapper.insert(item.entry());
+                    written.incrementAndGet();
+                } catch (DataIntegrityViolationException ex) {
+                    deadLetter(item.line());
+                } catch (RuntimeException ex) {
+                    writeOffset(offsetFile, item.lineNo() - 1);
+                    throw ex;
+                }
+            }
+        }
+        writeOffset(offsetFile, batch.get(batch.size() - 1).lineNo());
+    }
+
+    private SysOperationLog parseSpillLine(String line) {
+        try {
+            return JSON.parseObject(line, SysOperationLog.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void deadLetter(String line) throws IOException {
+        Path dir = Paths.get(properties.getSpillDir());
+        Files.writeString(dir.resolve(DEAD_LETTER_FILE), line + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        failed.incrementAndGet();
+        log.warn("操作日志回放行无法入库，已移入死信文件 | file={}", DEAD_LETTER_FILE);
+    }
+
+    private long readOffset(Path offsetFile) {
+        try {
+            return Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("操作日志回放偏移读取失败，从头回放 | error={}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void writeOffset(Path offsetFile, long lineNo) throws IOException {
+        Path temp = offsetFile.resolveSibling(REPLAY_OFFSET_FILE + ".tmp");
+        Files.writeString(temp, String.valueOf(lineNo), StandardCharsets.UTF_8);
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("operation.log.queue.depth", buffer, RingBuffer::size)
+                .description("操作日志缓冲区中待写入的条数")
+                .register(registry);
+        Gauge.builder("operation.log.queue.capacity", buffer, RingBuffer::capacity)
+                .register(registry);
+        bindCounter(registry, "operation.log.submitted", submitted);
+        bindCounter(registry, "operation.log.written", written);
+        bindCounter(registry, "operation.log.dropped", dropped);
+        bindCounter(registry, "operation.log.spilled", spilled);
+        bindCounter(registry, "operation.log.failed", failed);
+    }
+
+    private void bindCounter(MeterRegistry registry, String name, AtomicLong value) {
+        FunctionCounter.builder(name, value, AtomicLong::doubleValue).register(registry);
+    }
+
+    /**
+     * 写入器运行统计
+     *
+     * @param capacity  缓冲区容量
+     * @param depth     当前待写入条数
+     * @param submitted 累计提交条数
+     * @param written   累计入库条数
+     * @param dropped   缓冲区满被丢弃的条数
+     * @param spilled   累计落盘条数
+     * @param failed    入库失败被丢弃的条数
+     */
+    public record Stats(int capacity, int depth, long submitted, long written,
+                        long dropped, long spilled, long failed) {
+    }
+
+    /**
+     * 溢出文件中的一行及其行号
+     */
+    private record SpillLine(long lineNo, String line, SysOperationLog entry) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.nebula.service.mail;
+
+import com.nebula.config.properties.EmailOutboxProperties;
+import com.nebula.model.entity.EmailOutbox;
+import com.nebula.service.mapper.EmailOutboxMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 邮件发件箱投递
+ * 业务请求只向 email_outbox 写入一行，事务提交后唤醒投递线程；投递线程按批领取到期邮件，
+ * 整批通过一个 SMTP 连接发送，失败的邮件按指数退避重试，超过最大次数后标记为失败。
+ * 同一收件域名每秒的发送量受限，超出部分推迟到下一秒，避免触发服务商的频率限制。
+ * 已完成的邮件超过保留时长后由投递线程定期物理删除
+ */
+@Slf4j
+@Component
+public class EmailOutboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int PROVIDER_WINDOW_MAX_SIZE = 1_000;
+    private static final long MAX_BACKOFF_SECONDS = TimeUnit.HOURS.toSeconds(6);
+    private static final long CLEANUP_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int CLEANUP_BATCH_SIZE = 1_000;
+
+    private final EmailOutboxMapper outboxMapper;
+    private final JavaMailSender mailSender;
+    private final EmailOutboxProperties properties;
+    private final String fromEmail;
+    private final boolean emailEnabled;
+
+    /**
+     * 收件域名 -> 当前秒的发送计数，仅由投递线程访问
+     */
+    private final Map<String, long[]> providerWindows = new HashMap<>();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public EmailOutboxWorker(EmailOutboxMapper outboxMapper, JavaMailSender mailSender, EmailOutboxProperties properties,
+                             @Value("${spring.mail.username:}") String fromEmail,
+                             @Value("${app.email.enabled:false}") boolean emailEnabled) {
+        this.outboxMapper = outboxMapper;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.fromEmail = fromEmail;
+        this.emailEnabled = emailEnabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!emailEnabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "email-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 写入发件箱，随调用方事务提交；提交后立即唤醒投递线程
+     */
+    public void enqueue(String to, String subject, String content, boolean html) {
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setRecipient(to);
+        outbox.setSubject(subject);
+        outbox.setContent(content);
+        outbox.setHtml(html);
+        outbox.setStatus("pending");
+        outbox.setAttempts(0);
+        outbox.setNextAttemptAt(OffsetDateTime.now());
+        outboxMapper.insert(outbox);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        long lastCleanup = System.nanoTime() - CLEANUP_INTERVAL_NANOS;
+        while (running) {
+            int processed = 0;
+            try {
+                processed = deliverBatch();
+            } catch (Exception e) {
+                log.warn("邮件发件箱投递异常 | error={}", e.getMessage());
+            }
+            if (System.nanoTime() - lastCleanup >= CLEANUP_INTERVAL_NANOS) {
+                lastCleanup = System.nanoTime();
+                cleanup();
+            }
+            // 整批都因限速推迟时领取数仍等于批量大小，按实际处理数判断，避免空转
+            if (processed < properties.getBatchSize()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(properties.getPollIntervalMillis()));
+            }
+        }
+    }
+
+    /**
+     * 删除超过保留时长的已完成邮件，分批执行避免长事务
+     */
+    private void cleanup() {
+        try {
+            OffsetDateTime before = OffsetDateTime.now().minusHours(properties.getRetentionHours());
+            int total = 0;
+            int deleted;
+            do {
+                deleted = outboxMapper.deleteFinishedBefore(before, CLEANUP_BATCH_SIZE);
+                total += deleted;
+            } while (deleted == CLEANUP_BATCH_SIZE && running);
+            if (total > 0) {
+                log.info("清理已完成的发件箱邮件: {} 条", total);
+            }
+        } catch (Exception e) {
+            log.warn("发件箱清理失败 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 领取并发送一批邮件
+     *
+     * @return 实际处理（发送或放弃）的邮件数，不含因限速推迟的邮件
+     */
+    private int deliverBatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<EmailOutbox> batch = outboxMapper.claimBatch(properties.getBatchSize(),
+                now.plusSeconds(properties.getLeaseSeconds()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        int deferred = 0;
+        for (EmailOutbox outbox : batch) {
+            if (!acquireProviderPermit(outbox.getRecipient())) {
+                outboxMapper.markDeferred(outbox.getId(), now.plusSeconds(1));
+                deferred++;
+                continue;
+            }
+            try {
+                messages.put(buildMessage(outbox), outbox);
+            } catch (MessagingException | IllegalArgumentException e) {
+                log.warn("邮件内容无效，放弃发送 | id={}, to={}, error={}", outbox.getId(), outbox.getRecipient(), e.getMessage());
+                outboxMapper.markFailed(outbox.getId(), truncate(e.getMessage()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return batch.size() - deferred;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // 连接或认证失败时没有逐封的失败信息，整批重试
+                failures = new IdentityHashMap<>();
+                for (MimeMessage message : messages.keySet()) {
+                    failures.put(message, e);
+                }
+            }
+        } catch (MailException e) {
+            failures = new IdentityHashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failures.put(message, e);
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                handleFailure(entry.getValue(), failure);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboxMapper.markSent(sentIds);
+            log.info("邮件发送成功 | count={}", sentIds.size());
+        }
+        return batch.size() - deferred;
+    }
+
+    private MimeMessage buildMessage(EmailOutbox outbox) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean html = Boolean.TRUE.equals(outbox.getHtml());
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(outbox.getRecipient());
+        helper.setSubject(outbox.getSubject());
+        helper.setText(outbox.getContent(), html);
+        return message;
+    }
+
+    private void handleFailure(EmailOutbox outbox, Exception failure) {
+        String error = truncate(failure.getMessage());
+        int attempts = outbox.getAttempts() != null ? outbox.getAttempts() : 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            log.error("邮件多次发送失败，已放弃 | id={}, to={}, attempts={}, error={}",
+                    outbox.getId(), outbox.getRecipient(), attempts, error);
+            outboxMapper.markFailed(outbox.getId(), error);
+            return;
+        }
+        long backoff = Math.min(properties.getBackoffSeconds() << Math.min(attempts - 1, 20), MAX_BACKOFF_SECONDS);
+        log.warn("邮件发送失败，稍后重试 | id={}, to={}, attempts={}, retryIn={}s, error={}",
+                outbox.getId(), outbox.getRecipient(), attempts, backoff, error);
+        outboxMapper.markRetry(outbox.getId(), OffsetDateTime.now().plusSeconds(backoff), error);
+    }
+
+    /**
+     * 按收件域名做每秒固定窗口限速
+     */
+    private boolean acquireProviderPermit(String recipient) {
+        int at = recipient != null ? recipient.lastIndexOf('@') : -1;
+        String domain = at >= 0 ? recipient.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+        long second = System.currentTimeMillis() / 1000;
+        if (providerWindows.size() >= PROVIDER_WINDOW_MAX_SIZE) {
+            providerWindows.clear();
+        }
+        long[] window = providerWindows.computeIfAbsent(domain, key -> new long[2]);
+        if (window[0] != second) {
+            window[0] = second;
+            window[1] = 0;
+        }
+        if (window[1] >= properties.getPerProviderRatePerSecond()) {
+            return false;
+        }
+        window[1]++;
+        return true;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
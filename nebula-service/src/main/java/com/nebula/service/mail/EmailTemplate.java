@@ -0,0 +1,185 @@
+package com.nebula.service.mail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的邮件模板
+ * 模板文件由头部与正文两部分组成，以单独一行 "---" 分隔：头部每行为 "键: 值"，其中 subject 为主题模板，
+ * 其余条目作为本地化文案通过 {@link #label(String)} 读取；正文为 HTML，占位符写作 ${name}。
+ * 编译时把模板拆成文本片段与变量名交替的数组，渲染时顺序拼接，正文中的变量做 HTML 转义
+ */
+public final class EmailTemplate {
+
+    /**
+     * 渲染缓冲区超过该容量后不再复用，避免个别超大邮件长期占用内存
+     */
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String name;
+    private final Segments subject;
+    private final Segments body;
+    private final Map<String, String> labels;
+
+    private EmailTemplate(String name, Segments subject, Segments body, Map<String, String> labels) {
+        this.name = name;
+        this.subject = subject;
+        this.body = body;
+        this.labels = labels;
+    }
+
+    /**
+     * 解析模板源文件
+     *
+     * @param name   模板名称，用于错误信息
+     * @param source 模板内容
+     */
+    public static EmailTemplate compile(String name, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        int separator = normalized.startsWith("---\n") ? 0 : normalized.indexOf("\n---\n");
+        if (separator < 0) {
+            throw new IllegalArgumentException("邮件模板缺少头部分隔行: " + name);
+        }
+        String header = normalized.substring(0, separator);
+        String content = normalized.substring(separator + (separator == 0 ? 4 : 5));
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String line : header.split("\n")) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("邮件模板头部格式错误: " + name + " -> " + line);
+            }
+            headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+        }
+        String subjectSource = headers.remove("subject");
+        if (subjectSource == null) {
+            throw new IllegalArgumentException("邮件模板缺少 subject: " + name);
+        }
+        return new EmailTemplate(name, Segments.parse(name, subjectSource), Segments.parse(name, content),
+                Map.copyOf(headers));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 读取头部中的本地化文案
+     */
+    public String label(String key, String defaultValue) {
+        return labels.getOrDefault(key, defaultValue);
+    }
+
+    public String label(String key) {
+        return labels.get(key);
+    }
+
+    /**
+     * 渲染主题与正文
+     */
+    public RenderedEmail render(Map<String, String> variables) {
+        StringBuilder buffer = BUFFER.get();
+        try {
+            buffer.setLength(0);
+            subject.appendTo(buffer, variables, false);
+            String renderedSubject = buffer.toString();
+            buffer.setLength(0);
+            body.appendTo(buffer, variables, true);
+            return new RenderedEmail(renderedSubject, buffer.toString());
+        } finally {
+            if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+                BUFFER.remove();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * 将正文渲染到调用方提供的缓冲区，批量发送时可复用同一缓冲区
+     */
+    public void renderBodyTo(StringBuilder target, Map<String, String> variables) {
+        target.ensureCapacity(target.length() + body.literalLength);
+        body.appendTo(target, variables, true);
+    }
+
+    /**
+     * 渲染结果
+     */
+    public record RenderedEmail(String subject, String html) {
+    }
+
+    /**
+     * 文本片段与变量交替排列，literals 比 variables 多一个元素
+     */
+    private static final class Segments {
+
+        private final String[] literals;
+        private final String[] variables;
+        private final int literalLength;
+
+        private Segments(String[] literals, String[] variables) {
+            this.literals = literals;
+            this.variables = variables;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static Segments parse(String name, String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int position = 0;
+            int start;
+            while ((start = source.indexOf("${", position)) >= 0) {
+                int end = source.indexOf('}', start + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("邮件模板占位符未闭合: " + name);
+                }
+                literals.add(source.substring(position, start));
+                variables.add(source.substring(start + 2, end).trim());
+                position = end + 1;
+            }
+            literals.add(source.substring(position));
+            return new Segments(literals.toArray(new String[0]), variables.toArray(new String[0]));
+        }
+
+        void appendTo(StringBuilder target, Map<String, String> values, boolean escape) {
+            target.append(literals[0]);
+            for (int i = 0; i < variables.length; i++) {
+                String value = values.get(variables[i]);
+                if (value != null) {
+                    if (escape) {
+                        appendEscaped(target, value);
+                    } else {
+                        target.append(value);
+                    }
+                }
+                target.append(literals[i + 1]);
+            }
+        }
+
+        private static void appendEscaped(StringBuilder target, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '<' -> target.append("&lt;");
+                    case '>' -> target.append("&gt;");
+                    case '&' -> target.append("&amp;");
+                    case '"' -> target.append("&quot;");
+                    case '\'' -> target.append("&#39;");
+                    default -> target.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.nebula.service.mail;
+
+import com.nebula.config.properties.EmailTemplateProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮件模板引擎
+ * 启动时加载 classpath:templates/email/ 下的全部模板并预编译，外部目录中的同名模板优先；
+ * 配置了外部目录时定期检查文件修改时间，有变更则整体重新编译后原子替换。
+ * 文件名格式为 名称[_语言[_地区]].html，按 名称_语言_地区 -> 名称_语言 -> 名称 的顺序查找
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+
+    private static final String CLASSPATH_PATTERN = "classpath*:templates/email/*.html";
+    private static final String SUFFIX = ".html";
+
+    private final EmailTemplateProperties properties;
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    private volatile Map<String, EmailTemplate> templates = Map.of();
+    private volatile long externalFingerprint;
+    private ScheduledExecutorService reloader;
+
+    public EmailTemplateEngine(EmailTemplateProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (hasExternalLocation() && properties.getReloadIntervalSeconds() > 0) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "email-template-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = properties.getReloadIntervalSeconds();
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * 查找模板，不存在时抛出 IllegalStateException
+     */
+    public EmailTemplate get(String name, Locale locale) {
+        Map<String, EmailTemplate> current = templates;
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            if (!locale.getCountry().isEmpty()) {
+                EmailTemplate template = current.get(name + "_" + locale.getLanguage() + "_" + locale.getCountry());
+                if (template != null) {
+                    return template;
+                }
+            }
+            EmailTemplate template = current.get(name + "_" + locale.getLanguage());
+            if (template != null) {
+                return template;
+            }
+        }
+        EmailTemplate template = current.get(name);
+        if (template == null) {
+            throw new IllegalStateException("邮件模板不存在: " + name);
+        }
+        return template;
+    }
+
+    /**
+     * 重新加载全部模板；编译失败时保留原有模板
+     */
+    public synchronized void reload() {
+        try {
+            Map<String, EmailTemplate> loaded = new HashMap<>();
+            load(CLASSPATH_PATTERN, loaded);
+            if (hasExternalLocation()) {
+                externalFingerprint = fingerprint();
+                load(externalPattern(), loaded);
+            }
+            templates = Map.copyOf(loaded);
+            log.info("邮件模板加载完成 | count={}", loaded.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("邮件模板加载失败，继续使用原有模板 | error={}", e.getMessage());
+        }
+    }
+
+    private void reloadIfChanged() {
+        try {
+            if (fingerprint() != externalFingerprint) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("检查邮件模板变更失败 | error={}", e.getMessage());
+        }
+    }
+
+    private void load(String pattern, Map<String, EmailTemplate> target) throws IOException {
+        for (Resource resource : resolver.getResources(pattern)) {
+            String filename = resource.getFilename();
+            if (filename == null || !filename.endsWith(SUFFIX)) {
+                continue;
+            }
+            String key = filename.substring(0, filename.length() - SUFFIX.length());
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            target.put(key, EmailTemplate.compile(key, source));
+        }
+    }
+
+    /**
+     * 外部目录中模板文件的数量与修改时间摘要
+     */
+    private long fingerprint() throws IOException {
+        long hash = 1;
+        for (Resource resource : resolver.getResources(externalPattern())) {
+            hash = 31 * hash + String.valueOf(resource.getFilename()).hashCode();
+            hash = 31 * hash + resource.lastModified();
+        }
+        return hash;
+    }
+
+    private boolean hasExternalLocation() {
+        return properties.getLocation() != null && !properties.getLocation().isBlank();
+    }
+
+    private String externalPattern() {
+        String location = properties.getLocation();
+        return (location.endsWith("/") ? location : location + "/") + "*" + SUFFIX;
+    }
+}
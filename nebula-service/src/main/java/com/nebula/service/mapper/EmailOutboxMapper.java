@@ -0,0 +1,63 @@
+package com.nebula.service.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.nebula.model.entity.EmailOutbox;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 邮件发件箱Mapper
+ */
+@Mapper
+public interface EmailOutboxMapper extends BaseMapper<EmailOutbox> {
+
+    /**
+     * 领取一批到期邮件并设置租约，租约到期仍未完成的邮件会被重新领取；SKIP LOCKED 保证多实例不重复领取
+     */
+    @Select("UPDATE email_outbox SET status = 'sending', attempts = attempts + 1, next_attempt_at = #{leaseUntil} " +
+            "WHERE id IN (SELECT id FROM email_outbox WHERE status IN ('pending', 'sending') " +
+            "AND next_attempt_at <= NOW() AND deleted = 0 ORDER BY next_attempt_at LIMIT #{limit} FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *")
+    List<EmailOutbox> claimBatch(@Param("limit") int limit, @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    /**
+     * 批量标记为已发送
+     */
+    @Update("<script>" +
+            "UPDATE email_outbox SET status = 'sent', sent_at = NOW(), last_error = NULL WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 发送失败，安排下次重试
+     */
+    @Update("UPDATE email_outbox SET status = 'pending', next_attempt_at = #{nextAttemptAt}, last_error = #{error} WHERE id = #{id}")
+    int markRetry(@Param("id") Long id, @Param("nextAttemptAt") OffsetDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * 因限速推迟发送，不计入尝试次数
+     */
+    @Update("UPDATE email_outbox SET status = 'pending', attempts = attempts - 1, next_attempt_at = #{nextAttemptAt} WHERE id = #{id}")
+    int markDeferred(@Param("id") Long id, @Param("nextAttemptAt") OffsetDateTime nextAttemptAt);
+
+    /**
+     * 超过最大尝试次数，放弃发送
+     */
+    @Update("UPDATE email_outbox SET status = 'failed', last_error = #{error} WHERE id = #{id}")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * 物理删除一批早于指定时间完成的邮件，邮件内容含有效链接，不做逻辑删除
+     */
+    @Delete("DELETE FROM email_outbox WHERE id IN (SELECT id FROM email_outbox " +
+            "WHERE status IN ('sent', 'failed') AND update_time < #{before} LIMIT #{limit})")
+    int deleteFinishedBefore(@Param("before") OffsetDateTime before, @Param("limit") int limit);
+}
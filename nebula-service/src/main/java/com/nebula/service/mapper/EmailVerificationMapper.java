@@ -5,6 +5,7 @@ import com.nebula.model.entity.EmailVerification;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -27,6 +28,12 @@ public interface EmailVerificationMapper extends BaseMapper<EmailVerification> {
     @Select("SELECT * FROM email_verifications WHERE user_id = #{userId} AND type = #{type} AND status = 'pending' AND deleted = 0 ORDER BY create_time DESC LIMIT 1")
     Optional<EmailVerification> findLatestPendingByUserAndType(@Param("userId") Long userId, @Param("type") String type);
 
+    /**
+     * 按令牌标记为已验证
+     */
+    @Update("UPDATE email_verifications SET status = 'verified', verified_at = NOW(), update_time = NOW() WHERE token = #{token} AND status = 'pending' AND deleted = 0")
+    int markVerifiedByToken(@Param("token") String token);
+
     /**
      * 使用户的所有待验证记录过期
      */
@@ -36,6 +43,6 @@ public interface EmailVerificationMapper extends BaseMapper<EmailVerification> {
     /**
      * 清理过期的验证记录
      */
-    @Select("UPDATE email_verifications SET deleted = 1 WHERE status = 'expired' AND expires_at < #{beforeTime} AND deleted = 0")
+    @Select("UPDATE email_verifications SET deleted = 1 WHERE status IN ('expired', 'pending') AND expires_at < #{beforeTime} AND deleted = 0")
     int cleanupExpiredRecords(@Param("beforeTime") OffsetDateTime beforeTime);
 }
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.nebula.model.entity.LoginLog;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -17,6 +18,20 @@ import java.util.List;
 @Mapper
 public interface LoginLogMapper extends BaseMapper<LoginLog> {
 
+    /**
+     * 批量插入登录日志
+     */
+    @Insert("<script>" +
+            "INSERT INTO login_logs (user_id, username, login_type, status, fail_reason, ip_address, user_agent, " +
+            "browser, os, device, login_at, token_id) VALUES " +
+            "<foreach collection='logs' item='item' separator=','>" +
+            "(#{item.userId}, #{item.username}, #{item.loginType}, #{item.status}, #{item.failReason}, " +
+            "#{item.ipAddress}, #{item.userAgent}, #{item.browser}, #{item.os}, #{item.device}, " +
+            "#{item.loginAt}, #{item.tokenId})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("logs") List<LoginLog> logs);
+
     /**
      * 分页查询用户的登录日志
      */
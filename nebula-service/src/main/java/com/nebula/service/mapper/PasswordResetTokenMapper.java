@@ -5,6 +5,7 @@ import com.nebula.model.entity.PasswordResetToken;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -33,6 +34,12 @@ public interface PasswordResetTokenMapper extends BaseMapper<PasswordResetToken>
     @Select("UPDATE password_reset_tokens SET status = 'used', used_at = NOW(), update_time = NOW() WHERE id = #{id} AND status = 'pending' AND deleted = 0")
     int markAsUsed(@Param("id") Long id);
 
+    /**
+     * 按令牌标记为已使用
+     */
+    @Update("UPDATE password_reset_tokens SET status = 'used', used_at = NOW(), update_time = NOW() WHERE token = #{token} AND status = 'pending' AND deleted = 0")
+    int markAsUsedByToken(@Param("token") String token);
+
     /**
      * 使用户的所有待使用令牌过期
      */
@@ -42,6 +49,7 @@ public interface PasswordResetTokenMapper extends BaseMapper<PasswordResetToken>
     /**
      * 清理过期的令牌记录
      */
-    @Select("UPDATE password_reset_tokens SET deleted = 1 WHERE status IN ('used', 'expired') AND update_time < #{beforeTime} AND deleted = 0")
+    @Select("UPDATE password_reset_tokens SET deleted = 1 WHERE (status IN ('used', 'expired') AND update_time < #{beforeTime} " +
+            "OR status = 'pending' AND expires_at < #{beforeTime}) AND deleted = 0")
     int cleanupOldRecords(@Param("beforeTime") OffsetDateTime beforeTime);
 }
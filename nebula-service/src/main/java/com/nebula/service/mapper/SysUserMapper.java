@@ -2,11 +2,46 @@ package com.nebula.service.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.nebula.model.entity.SysUser;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
 
 /**
  * 系统用户Mapper
  */
 @Mapper
 public interface SysUserMapper extends BaseMapper<SysUser> {
+
+    /**
+     * 批量更新最后登录时间，只会向后推进
+     *
+     * @param logins 用户ID -> 登录时间
+     */
+    @Update("<script>" +
+            "UPDATE sys_users AS u SET last_login_at = GREATEST(u.last_login_at, v.login_at), " +
+            "last_seen_at = GREATEST(u.last_seen_at, v.login_at) " +
+            "FROM (VALUES " +
+            "<foreach collection='logins' index='userId' item='loginAt' separator=','>" +
+            "(CAST(#{userId} AS BIGINT), CAST(#{loginAt} AS TIMESTAMPTZ))" +
+            "</foreach>" +
+            ") AS v(id, login_at) " +
+            "WHERE u.id = v.id" +
+            "</script>")
+    int updateLastLoginBatch(@Param("logins") Map<Long, OffsetDateTime> logins);
+
+    /**
+     * 注册插入，用户名或邮箱与已有记录冲突时不插入，由唯一约束保证并发下的唯一性
+     *
+     * @return 插入行数，冲突时为 0
+     */
+    @Insert("INSERT INTO sys_users (username, password, email, nickname, account_status, create_time, update_time, deleted) " +
+            "VALUES (#{username}, #{password}, #{email}, #{nickname}, #{accountStatus}, NOW(), NOW(), 0) " +
+            "ON CONFLICT DO NOTHING")
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int insertIfAbsent(SysUser sysUser);
 }
@@ -14,5 +14,7 @@ public interface SysMenuMapper extends BaseMapper<SysMenu> {
 
     List<SysMenu> selectMenuListByRoleId(@Param("roleId") Long roleId);
 
+    List<SysMenu> selectMenuListByRoleIds(@Param("roleIds") List<Long> roleIds);
+
     List<String> selectPermsByUserId(@Param("userId") Long userId);
 }
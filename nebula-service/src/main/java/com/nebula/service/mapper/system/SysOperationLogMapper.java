@@ -3,7 +3,12 @@ package com.nebula.service.mapper.system;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.nebula.model.entity.system.SysOperationLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface SysOperationLogMapper extends BaseMapper<SysOperationLog> {
+
+    int insertBatch(@Param("logs") List<SysOperationLog> logs);
 }
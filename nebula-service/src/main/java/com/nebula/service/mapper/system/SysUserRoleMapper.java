@@ -3,7 +3,12 @@ package com.nebula.service.mapper.system;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.nebula.model.entity.system.SysUserRole;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
+
+    int insertBatch(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
 }
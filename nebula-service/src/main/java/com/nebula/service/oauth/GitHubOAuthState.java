@@ -0,0 +1,16 @@
+package com.nebula.service.oauth;
+
+/**
+ * GitHub 回调后暂存的用户信息，等待用户确认登录
+ *
+ * @param githubId    GitHub 用户ID
+ * @param githubLogin GitHub 登录名
+ * @param name        GitHub 昵称，可能为空
+ * @param email       GitHub 公开邮箱，可能为空
+ * @param avatarUrl   GitHub 头像地址，可能为空
+ * @param bio         个人简介，可能为空
+ * @param newUser     回调时该 GitHub 账号是否尚未注册
+ */
+public record GitHubOAuthState(long githubId, String githubLogin, String name, String email,
+                               String avatarUrl, String bio, boolean newUser) {
+}
@@ -0,0 +1,117 @@
+package com.nebula.service.oauth;
+
+import com.nebula.common.constant.RedisKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GitHub 登录临时状态存储
+ * 以 Redis HASH 保存纯字符串字段，不携带序列化类型信息，写入与设置过期在一次往返内完成；
+ * 确认登录时由 Lua 脚本一次完成读取与删除，同一临时凭证并发提交时只有一个请求能取到数据
+ */
+@Component
+@RequiredArgsConstructor
+public class GitHubOAuthStateStore {
+
+    private static final String PROVIDER = "github";
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_LOGIN = "login";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_EMAIL = "email";
+    private static final String FIELD_AVATAR = "avatar";
+    private static final String FIELD_BIO = "bio";
+    private static final String FIELD_NEW_USER = "new";
+
+    /**
+     * 写入字段并设置过期时间
+     * KEYS: 临时状态；ARGV: 过期时间（秒）、字段名与值交替排列
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * 读取全部字段后删除
+     * KEYS: 临时状态
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local fields = redis.call('HGETALL', KEYS[1])
+            if #fields > 0 then
+                redis.call('DEL', KEYS[1])
+            end
+            return fields
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 保存临时状态
+     */
+    public void save(String tempToken, GitHubOAuthState state, long ttlSeconds) {
+        List<String> args = new ArrayList<>(15);
+        args.add(String.valueOf(ttlSeconds));
+        addField(args, FIELD_ID, String.valueOf(state.githubId()));
+        addField(args, FIELD_LOGIN, state.githubLogin());
+        addField(args, FIELD_NAME, state.name());
+        addField(args, FIELD_EMAIL, state.email());
+        addField(args, FIELD_AVATAR, state.avatarUrl());
+        addField(args, FIELD_BIO, state.bio());
+        addField(args, FIELD_NEW_USER, state.newUser() ? "1" : "0");
+        stringRedisTemplate.execute(SAVE_SCRIPT, List.of(RedisKey.Auth.oauthTemp(PROVIDER, tempToken)),
+                args.toArray());
+    }
+
+    /**
+     * 读取临时状态，不存在或已过期时返回 null
+     */
+    public GitHubOAuthState get(String tempToken) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(RedisKey.Auth.oauthTemp(PROVIDER, tempToken));
+        return fields.isEmpty() ? null : toState(fields);
+    }
+
+    /**
+     * 原子读取并删除临时状态，不存在、已过期或已被使用时返回 null
+     */
+    public GitHubOAuthState take(String tempToken) {
+        List<?> flat = stringRedisTemplate.execute(TAKE_SCRIPT, List.of(RedisKey.Auth.oauthTemp(PROVIDER, tempToken)));
+        if (flat == null || flat.isEmpty()) {
+            return null;
+        }
+        Map<Object, Object> fields = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            fields.put(flat.get(i), flat.get(i + 1));
+        }
+        return toState(fields);
+    }
+
+    private static GitHubOAuthState toState(Map<Object, Object> fields) {
+        return new GitHubOAuthState(
+                Long.parseLong((String) fields.get(FIELD_ID)),
+                (String) fields.get(FIELD_LOGIN),
+                (String) fields.get(FIELD_NAME),
+                (String) fields.get(FIELD_EMAIL),
+                (String) fields.get(FIELD_AVATAR),
+                (String) fields.get(FIELD_BIO),
+                "1".equals(fields.get(FIELD_NEW_USER)));
+    }
+
+    private static void addField(List<String> args, String field, String value) {
+        if (value != null) {
+            args.add(field);
+            args.add(value);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.nebula.model.dto.LoginDTO;
 import com.nebula.model.dto.RegisterDTO;
 import com.nebula.model.vo.LoginVO;
 
+import java.util.Map;
+
 /**
  * 认证服务接口
  */
@@ -25,6 +27,11 @@ public interface AuthService {
      */
     void logout(Long userId);
 
+    /**
+     * 使用刷新令牌换取新的令牌对（仅无状态模式）
+     */
+    Map<String, Object> refresh(String refreshToken);
+
     /**
      * 获取用户信息
      */
@@ -9,7 +9,7 @@ public interface EmailService {
      * 发送邮箱验证邮件
      *
      * @param to      收件人邮箱
-     * @param subject 邮件主题
+     * @param subject 邮件主题，为 null 时使用模板中的主题
      * @param token   验证令牌
      * @param type    验证类型
      */
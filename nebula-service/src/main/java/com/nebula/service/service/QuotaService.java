@@ -0,0 +1,17 @@
+package com.nebula.service.service;
+
+/**
+ * 每日配额服务接口
+ */
+public interface QuotaService {
+
+    /**
+     * 占用一次当日配额
+     *
+     * @param scope   配额类别，如 password_reset
+     * @param subject 配额主体，如用户ID
+     * @param limit   每日上限
+     * @return 未超出上限时返回 true
+     */
+    boolean tryAcquire(String scope, String subject, int limit);
+}
@@ -1,5 +1,7 @@
 package com.nebula.service.service.system;
 
+import com.nebula.service.cache.PermissionSet;
+
 import java.util.Set;
 
 public interface PermissionService {
@@ -8,5 +10,10 @@ public interface PermissionService {
 
     Set<String> getUserPermissions(Long userId);
 
+    /**
+     * 获取用户权限位图
+     */
+    PermissionSet getUserPermissionSet(Long userId);
+
     String getDataScopeSql(Long userId, String tableAlias);
 }
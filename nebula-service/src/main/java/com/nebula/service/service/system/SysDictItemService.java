@@ -4,8 +4,14 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.nebula.model.entity.system.SysDictItem;
 
 import java.util.List;
+import java.util.Map;
 
 public interface SysDictItemService extends IService<SysDictItem> {
 
     List<SysDictItem> getItemsByDictCode(String dictCode);
+
+    /**
+     * 批量获取多个字典编码的字典项
+     */
+    Map<String, List<SysDictItem>> getItemsByDictCodes(List<String> dictCodes);
 }
@@ -13,6 +13,16 @@ public interface SysMenuService extends IService<SysMenu> {
 
     List<String> getPermsByUserId(Long userId);
 
+    /**
+     * 获取全量菜单树（缓存）
+     */
+    List<SysMenu> getMenuTree();
+
+    /**
+     * 获取用户菜单树，按用户启用角色集合缓存
+     */
+    List<SysMenu> getUserMenuTree(Long userId);
+
     List<SysMenu> buildMenuTree(List<SysMenu> menus);
 
     void deleteMenu(Long menuId);
@@ -2,6 +2,7 @@ package com.nebula.service.service.system;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.nebula.model.entity.system.SysRole;
+import com.nebula.service.context.AuthorizationContext;
 
 import java.util.List;
 
@@ -9,6 +10,11 @@ public interface SysRoleService extends IService<SysRole> {
 
     List<SysRole> getRolesByUserId(Long userId);
 
+    /**
+     * 获取用户授权上下文，同一请求内只查询一次角色
+     */
+    AuthorizationContext getAuthorizationContext(Long userId);
+
     List<Long> getMenuIdsByRoleId(Long roleId);
 
     void saveRoleMenus(Long roleId, List<Long> menuIds);
@@ -0,0 +1,70 @@
+package com.nebula.service.benchmark;
+
+import com.nebula.service.mail.EmailTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮件模板渲染吞吐：预编译模板对比改造前的 String.format 拼接
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private EmailTemplate template;
+    private String formatSource;
+    private Map<String, String> variables;
+    private StringBuilder bulkBuffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        String source;
+        try (InputStream in = getClass().getResourceAsStream("/templates/email/verification.html")) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        template = EmailTemplate.compile("verification", source);
+        String body = source.substring(source.indexOf("\n---\n") + 5);
+        formatSource = body.replace("%", "%%").replace("${typeText}", "%1$s").replace("${url}", "%2$s");
+        variables = Map.of("typeText", "邮箱注册",
+                "url", "https://nebula.example.com/verify?token=eyJ1c2VySWQiOjQyfQ.c2lnbmF0dXJlLXBsYWNlaG9sZGVy");
+        bulkBuffer = new StringBuilder(8192);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(formatSource, variables.get("typeText"), variables.get("url"));
+    }
+
+    @Benchmark
+    public EmailTemplate.RenderedEmail precompiled() {
+        return template.render(variables);
+    }
+
+    /**
+     * 批量发送复用调用方缓冲区，不产生中间字符串
+     */
+    @Benchmark
+    public int precompiledIntoBuffer() {
+        bulkBuffer.setLength(0);
+        template.renderBodyTo(bulkBuffer, variables);
+        return bulkBuffer.length();
+    }
+}
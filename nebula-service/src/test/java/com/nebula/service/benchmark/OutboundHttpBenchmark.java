@@ -0,0 +1,116 @@
+package com.nebula.service.benchmark;
+
+import com.nebula.config.config.RestTemplateConfig;
+import com.nebula.config.properties.HttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth 回调中两次出站调用（换取令牌、读取用户信息）在并发下的耗时
+ * 本地 HTTP 替身模拟 GitHub 接口的处理时延；对比改造前的 new RestTemplate() 与 {@link RestTemplateConfig} 提供的客户端
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class OutboundHttpBenchmark {
+
+    private static final byte[] TOKEN_RESPONSE = "{\"access_token\":\"gho_standin\",\"token_type\":\"bearer\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USER_RESPONSE = "{\"id\":42,\"login\":\"octocat\",\"name\":\"The Octocat\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 替身接口的处理时延（毫秒）
+     */
+    @Param({"0", "20"})
+    private long latencyMillis;
+
+    private HttpServer server;
+    private String baseUrl;
+    private RestTemplate bareRestTemplate;
+    private RestTemplate pooledRestTemplate;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        server.createContext("/login/oauth/access_token", exchange -> respond(exchange, TOKEN_RESPONSE));
+        server.createContext("/user", exchange -> respond(exchange, USER_RESPONSE));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        bareRestTemplate = new RestTemplate();
+        HttpClientProperties properties = new HttpClientProperties();
+        // 替身为明文 HTTP/1.1，不支持 h2c 升级
+        properties.setHttp2(false);
+        RestTemplateConfig config = new RestTemplateConfig();
+        pooledRestTemplate = config.restTemplate(config.outboundHttpClient(properties), properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String bareRestTemplate() {
+        return callback(bareRestTemplate);
+    }
+
+    @Benchmark
+    public String pooledRestTemplate() {
+        return callback(pooledRestTemplate);
+    }
+
+    private String callback(RestTemplate restTemplate) {
+        restTemplate.postForObject(baseUrl + "/login/oauth/access_token", null, String.class);
+        return restTemplate.getForObject(baseUrl + "/user", String.class);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nebula.service.benchmark;
+
+import com.nebula.config.properties.PasswordHashProperties;
+import com.nebula.config.security.BoundedPasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt 校验吞吐
+ * perCore 单线程直接校验，即每核每秒可完成的登录次数；
+ * bounded 以与核数相同的请求线程经 {@link BoundedPasswordEncoder} 校验，衡量线程池调度开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private BoundedPasswordEncoder boundedEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+
+        PasswordHashProperties properties = new PasswordHashProperties();
+        properties.setStrength(strength);
+        properties.setQueueCapacity(1024);
+        properties.setTimeoutMillis(60_000);
+        boundedEncoder = new BoundedPasswordEncoder(properties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        boundedEncoder.destroy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean perCore() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean bounded() {
+        return boundedEncoder.matches(PASSWORD, hash);
+    }
+}
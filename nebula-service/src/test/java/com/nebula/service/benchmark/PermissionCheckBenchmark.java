@@ -0,0 +1,123 @@
+package com.nebula.service.benchmark;
+
+import com.nebula.service.cache.PermissionRegistry;
+import com.nebula.service.cache.PermissionSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 权限校验：每次构建 HashSet 的旧路径、缓存 Set 的字符串查找、位图位测试
+ * menus 为 sys_menu 中权限标识数量，用户被授予其中约三分之一
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    @Param({"200", "1000"})
+    private int menus;
+
+    private List<String> grantedList;
+    private Set<String> grantedSet;
+    private PermissionRegistry registry;
+    private PermissionSet grantedBits;
+    private PermissionSet requiredBits;
+    private String[] probes;
+    private int[] probeIds;
+    private String[] required;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        registry = new PermissionRegistry(null);
+        List<String> all = new ArrayList<>(menus);
+        for (int i = 0; i < menus; i++) {
+            String permission = "module" + (i / 20) + ":resource" + (i % 20) + ":" + (i % 2 == 0 ? "list" : "edit");
+            all.add(permission);
+            registry.intern(permission);
+        }
+        grantedList = new ArrayList<>();
+        for (String permission : all) {
+            if (random.nextInt(3) == 0) {
+                grantedList.add(permission);
+            }
+        }
+        grantedSet = new HashSet<>(grantedList);
+        grantedBits = registry.encode(grantedList);
+
+        probes = new String[1024];
+        probeIds = new int[probes.length];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = all.get(random.nextInt(all.size()));
+            probeIds[i] = registry.idOf(probes[i]);
+        }
+        required = new String[]{all.get(0), all.get(all.size() / 2), all.get(all.size() - 1)};
+        requiredBits = registry.encode(List.of(required));
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (probes.length - 1);
+    }
+
+    /**
+     * 改造前：每次校验从角色权限列表重新构建 HashSet，再分别查找权限本身与 *:*:*
+     */
+    @Benchmark
+    public boolean rebuiltHashSet() {
+        String permission = probes[next()];
+        Set<String> permissions = new HashSet<>(grantedList);
+        return permissions.contains(PermissionRegistry.ALL_PERMISSION) || permissions.contains(permission);
+    }
+
+    @Benchmark
+    public boolean cachedHashSet() {
+        String permission = probes[next()];
+        return grantedSet.contains(PermissionRegistry.ALL_PERMISSION) || grantedSet.contains(permission);
+    }
+
+    @Benchmark
+    public boolean bitsetByName() {
+        return grantedBits.contains(registry.idOf(probes[next()]));
+    }
+
+    @Benchmark
+    public boolean bitsetById() {
+        return grantedBits.contains(probeIds[next()]);
+    }
+
+    @Benchmark
+    public boolean containsAllHashSet() {
+        for (String permission : required) {
+            if (!grantedSet.contains(permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean containsAllBitset() {
+        return grantedBits.containsAll(requiredBits);
+    }
+}
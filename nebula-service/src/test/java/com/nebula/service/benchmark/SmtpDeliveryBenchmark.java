@@ -0,0 +1,84 @@
+package com.nebula.service.benchmark;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发送一批邮件的耗时：改造前每封邮件单独建立 SMTP 连接，发件箱投递线程整批复用一个连接
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SmtpDeliveryBenchmark {
+
+    /**
+     * 模拟的单次往返时延（毫秒）
+     */
+    @Param({"0", "2"})
+    private long rttMillis;
+
+    @Param({"20"})
+    private int batchSize;
+
+    private SmtpStandIn server;
+    private JavaMailSenderImpl mailSender;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = SmtpStandIn.start(rttMillis);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.port());
+        mailSender.setDefaultEncoding("UTF-8");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() throws MessagingException {
+        for (MimeMessage message : messages()) {
+            mailSender.send(message);
+        }
+    }
+
+    @Benchmark
+    public void batchedConnection() throws MessagingException {
+        mailSender.send(messages());
+    }
+
+    private MimeMessage[] messages() throws MessagingException {
+        MimeMessage[] messages = new MimeMessage[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            messages[i] = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(messages[i], true, "UTF-8");
+            helper.setFrom("noreply@nebula.example.com");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("【NebulaHub】邮箱注册验证");
+            helper.setText("<p>验证链接: https://nebula.example.com/verify?token=" + i + "</p>", true);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,115 @@
+package com.nebula.service.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地 SMTP 替身
+ * 只实现发信所需的最小命令集，每条应答前等待固定时长以模拟到邮件服务器的网络往返
+ */
+final class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long replyDelayMillis;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger delivered = new AtomicInteger();
+
+    private SmtpStandIn(long replyDelayMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.replyDelayMillis = replyDelayMillis;
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    static SmtpStandIn start(long replyDelayMillis) throws IOException {
+        return new SmtpStandIn(replyDelayMillis);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 累计建立的连接数
+     */
+    int connections() {
+        return accepted.get();
+    }
+
+    /**
+     * 累计收到的邮件数
+     */
+    int delivered() {
+        return delivered.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                accepted.incrementAndGet();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1))) {
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 stand-in ESMTP");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 stand-in");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = reader.readLine()) != null && !line.equals(".")) {
+                            // 丢弃邮件内容
+                        }
+                        delivered.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // 客户端断开
+        }
+    }
+
+    private void reply(OutputStream out, String text) throws IOException, InterruptedException {
+        if (replyDelayMillis > 0) {
+            Thread.sleep(replyDelayMillis);
+        }
+        out.write((text + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+}
@@ -0,0 +1,68 @@
+package com.nebula.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionSetTest {
+
+    @Test
+    void containsOnlyGrantedIds() {
+        PermissionSet set = PermissionSet.of(0, 63, 64, 200);
+
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(63)).isTrue();
+        assertThat(set.contains(64)).isTrue();
+        assertThat(set.contains(200)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+        assertThat(set.contains(65)).isFalse();
+        assertThat(set.contains(10_000)).isFalse();
+        assertThat(set.contains(-1)).isFalse();
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        assertThat(PermissionSet.of()).isSameAs(PermissionSet.EMPTY);
+        assertThat(PermissionSet.EMPTY.isEmpty()).isTrue();
+        assertThat(PermissionSet.EMPTY.contains(0)).isFalse();
+        assertThat(PermissionSet.of(-1).isEmpty()).isTrue();
+    }
+
+    @Test
+    void unionMergesSetsOfDifferentLength() {
+        PermissionSet union = PermissionSet.union(PermissionSet.of(1), PermissionSet.of(130), PermissionSet.EMPTY);
+
+        assertThat(union.contains(1)).isTrue();
+        assertThat(union.contains(130)).isTrue();
+        assertThat(union).isEqualTo(PermissionSet.of(1, 130));
+    }
+
+    @Test
+    void intersectsAndContainsAll() {
+        PermissionSet granted = PermissionSet.of(3, 70, 140);
+
+        assertThat(granted.intersects(PermissionSet.of(5, 70))).isTrue();
+        assertThat(granted.intersects(PermissionSet.of(5, 71))).isFalse();
+        assertThat(granted.intersects(PermissionSet.EMPTY)).isFalse();
+        assertThat(granted.containsAll(PermissionSet.of(3, 140))).isTrue();
+        assertThat(granted.containsAll(PermissionSet.of(3, 141))).isFalse();
+        assertThat(granted.containsAll(PermissionSet.of(3, 500))).isFalse();
+        assertThat(granted.containsAll(PermissionSet.EMPTY)).isTrue();
+    }
+
+    @Test
+    void equalSetsHaveEqualHashCodes() {
+        PermissionSet built = PermissionSet.of(70, 2);
+        PermissionSet merged = PermissionSet.union(PermissionSet.of(2), PermissionSet.of(70));
+
+        assertThat(merged).isEqualTo(built).hasSameHashCodeAs(built);
+        assertThat(merged).isNotEqualTo(PermissionSet.of(2));
+    }
+
+    @Test
+    void registryExpandsWildcards() {
+        assertThat(PermissionRegistry.grantingPermissions("system:user:list"))
+                .containsExactly("system:user:list", "system:user:*", "system:*:*", "*:*:*");
+        assertThat(PermissionRegistry.grantingPermissions("*:*:*")).containsExactly("*:*:*");
+    }
+}
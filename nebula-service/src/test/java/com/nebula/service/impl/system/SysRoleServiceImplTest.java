@@ -0,0 +1,128 @@
+package com.nebula.service.impl.system;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.nebula.common.constant.AdminConstants;
+import com.nebula.model.entity.system.SysRole;
+import com.nebula.model.entity.system.SysUserRole;
+import com.nebula.service.cache.MenuChangedEvent;
+import com.nebula.service.cache.PermissionChangedEvent;
+import com.nebula.service.mapper.system.SysRoleMapper;
+import com.nebula.service.mapper.system.SysRoleMenuMapper;
+import com.nebula.service.mapper.system.SysUserRoleMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 统计一次请求内角色查询的次数：拦截器判断超级管理员、PermissionService 再次判断、控制器判断角色
+ */
+class SysRoleServiceImplTest {
+
+    private static final Long USER_ID = 100L;
+
+    private SysRoleMapper roleMapper;
+    private SysUserRoleMapper userRoleMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private SysRoleServiceImpl service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper 解析列名依赖实体元数据，脱离 Spring 容器时需手动初始化
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), SysUserRole.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        roleMapper = mock(SysRoleMapper.class);
+        userRoleMapper = mock(SysUserRoleMapper.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new SysRoleServiceImpl(mock(SysRoleMenuMapper.class), userRoleMapper, eventPublisher);
+        ReflectionTestUtils.setField(service, "baseMapper", roleMapper);
+
+        SysRole role = new SysRole();
+        role.setId(2L);
+        role.setRoleCode("editor");
+        when(roleMapper.selectRolesByUserId(USER_ID)).thenReturn(List.of(role));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void simulateRequest() {
+        service.isSuperAdmin(USER_ID);
+        service.isSuperAdmin(USER_ID);
+        service.hasRole(USER_ID, "editor");
+    }
+
+    @Test
+    void resolvesRolesOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        simulateRequest();
+
+        verify(roleMapper, times(1)).selectRolesByUserId(USER_ID);
+        assertThat(service.hasRole(USER_ID, "editor")).isTrue();
+        assertThat(service.isSuperAdmin(USER_ID)).isFalse();
+    }
+
+    @Test
+    void resolvesRolesPerCallOutsideRequest() {
+        simulateRequest();
+
+        verify(roleMapper, times(3)).selectRolesByUserId(USER_ID);
+    }
+
+    @Test
+    void superAdminUserNeedsNoRoleQuery() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThat(service.isSuperAdmin(AdminConstants.SUPER_ADMIN_USER_ID)).isTrue();
+        verify(roleMapper, times(0)).selectRolesByUserId(any());
+    }
+
+    @Test
+    void assigningRolesDropsRequestContext() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        service.hasRole(USER_ID, "editor");
+
+        service.assignRolesToUser(USER_ID, List.of(2L, 3L));
+        service.hasRole(USER_ID, "editor");
+
+        verify(roleMapper, times(2)).selectRolesByUserId(USER_ID);
+    }
+
+    @Test
+    void updatingRolePublishesCacheEvents() {
+        SysUserRole member = new SysUserRole();
+        member.setUserId(USER_ID);
+        when(userRoleMapper.selectList(any())).thenReturn(List.of(member));
+        when(roleMapper.updateById(any(SysRole.class))).thenReturn(1);
+        SysRole role = new SysRole();
+        role.setId(2L);
+        role.setStatus("0");
+
+        assertThat(service.updateById(role)).isTrue();
+
+        verify(eventPublisher).publishEvent(new PermissionChangedEvent(List.of(USER_ID)));
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(2L));
+    }
+}
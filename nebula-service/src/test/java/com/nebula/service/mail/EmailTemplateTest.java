@@ -0,0 +1,95 @@
+package com.nebula.service.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateTest {
+
+    private static final String SOURCE = """
+            subject: Hello ${name}
+            # comment
+            greeting: Welcome
+            ---
+            <p>${ greeting }, ${name}!</p><a href="${url}">${missing}go</a>
+            """;
+
+    @Test
+    void rendersSubjectAndBody() {
+        EmailTemplate template = EmailTemplate.compile("test", SOURCE);
+
+        EmailTemplate.RenderedEmail email = template.render(Map.of(
+                "name", "Tom", "greeting", "Hi", "url", "https://example.com/a?b=1"));
+
+        assertThat(email.subject()).isEqualTo("Hello Tom");
+        assertThat(email.html()).isEqualTo("<p>Hi, Tom!</p><a href=\"https://example.com/a?b=1\">go</a>\n");
+        assertThat(template.getName()).isEqualTo("test");
+        assertThat(template.label("greeting")).isEqualTo("Welcome");
+        assertThat(template.label("subject")).isNull();
+        assertThat(template.label("absent", "fallback")).isEqualTo("fallback");
+    }
+
+    @Test
+    void escapesBodyVariablesOnly() {
+        EmailTemplate template = EmailTemplate.compile("test", SOURCE);
+
+        EmailTemplate.RenderedEmail email = template.render(Map.of("name", "<b>\"A&B'</b>"));
+
+        assertThat(email.subject()).isEqualTo("Hello <b>\"A&B'</b>");
+        assertThat(email.html()).contains("&lt;b&gt;&quot;A&amp;B&#39;&lt;/b&gt;");
+    }
+
+    @Test
+    void acceptsWindowsLineEndings() {
+        EmailTemplate template = EmailTemplate.compile("crlf", "subject: S\r\n---\r\nbody ${x}\r\n");
+
+        assertThat(template.render(Map.of("x", "1")).html()).isEqualTo("body 1\n");
+    }
+
+    @Test
+    void rendersBodyIntoCallerBuffer() {
+        EmailTemplate template = EmailTemplate.compile("test", SOURCE);
+        StringBuilder target = new StringBuilder("prefix|");
+
+        template.renderBodyTo(target, Map.of("name", "Tom", "greeting", "Hi", "url", "u"));
+
+        assertThat(target).hasToString("prefix|<p>Hi, Tom!</p><a href=\"u\">go</a>\n");
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> EmailTemplate.compile("a", "subject: S\nbody"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmailTemplate.compile("b", "---\nbody"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmailTemplate.compile("c", "title S\n---\nbody"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmailTemplate.compile("d", "subject: S\n---\n${open"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bundledTemplatesCompile() throws IOException {
+        for (String name : new String[]{"verification", "verification_en", "password-reset", "password-reset_en"}) {
+            EmailTemplate template = EmailTemplate.compile(name, readTemplate(name));
+            EmailTemplate.RenderedEmail email = template.render(Map.of(
+                    "typeText", "T", "url", "https://example.com/x", "username", "u"));
+
+            assertThat(email.subject()).isNotBlank().doesNotContain("${");
+            assertThat(email.html()).contains("https://example.com/x").doesNotContain("${");
+        }
+    }
+
+    static String readTemplate(String name) throws IOException {
+        try (InputStream in = EmailTemplateTest.class.getResourceAsStream("/templates/email/" + name + ".html")) {
+            assertThat(in).as("template %s", name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}